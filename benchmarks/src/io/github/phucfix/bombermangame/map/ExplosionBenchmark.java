@@ -0,0 +1,76 @@
+package io.github.phucfix.bombermangame.map;
+
+import io.github.phucfix.bombermangame.headless.HeadlessSimulation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GameMap#explode(float, float, float)} for bombs spread over the map,
+ * and chain reactions through a row of {@code bombCount} bombs.
+ * The first explosions of an iteration destroy what they hit; later ones measure the blast propagation alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExplosionBenchmark {
+
+    @Param({"21", "101", "201"})
+    public int mapSize;
+
+    @Param({"10", "1000"})
+    public int enemyCount;
+
+    /** The number of distinct bomb tiles the explosions cycle through. */
+    @Param({"1", "8"})
+    public int bombCount;
+
+    @Param({"1", "8"})
+    public int radius;
+
+    private GameMap map;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        map = new HeadlessSimulation(SyntheticMap.generate(mapSize, enemyCount, 42)).getMap();
+        next = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        map.dispose();
+    }
+
+    @Benchmark
+    public void explode(Blackhole blackhole) {
+        // Bombs sit on odd tiles, which are never pillars
+        int tile = 1 + 2 * (next++ % bombCount);
+        map.explode(tile, tile, radius);
+        blackhole.consume(map.getSegments().size());
+        map.clearSegments();
+    }
+
+    @Benchmark
+    public void chainReaction(Blackhole blackhole) {
+        // A row of bombs two tiles apart, so with a radius of 2 or more each one sets off the next
+        Bomb.setMaxConcurrentBombs(Math.max(Bomb.getMaxConcurrentBombs(), bombCount));
+        Bomb.setCurrentBombRadius(radius);
+        for (int i = 0; i < bombCount; i++) {
+            map.plantBomb(1 + 2 * i, 1);
+        }
+        map.detonate(map.getBombs().get(0));
+        blackhole.consume(map.getSegments().size());
+        map.clearSegments();
+        // Bombs the chain did not reach go off here too, and the sensor events of the planted bombs are dropped
+        while (!map.getBombs().isEmpty()) {
+            map.detonate(map.getBombs().get(0));
+            map.clearSegments();
+        }
+        map.getClock().clear();
+    }
+}
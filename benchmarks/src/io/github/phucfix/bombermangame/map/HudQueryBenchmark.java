@@ -0,0 +1,53 @@
+package io.github.phucfix.bombermangame.map;
+
+import io.github.phucfix.bombermangame.headless.HeadlessSimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-frame queries that do not depend on the player's input:
+ * {@link GameMap#getRemainingEnemies()} (called by the HUD and the win check)
+ * and the power-up pickup lookup on a tile without power-ups.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HudQueryBenchmark {
+
+    @Param({"21", "101", "201"})
+    public int mapSize;
+
+    @Param({"10", "100", "1000"})
+    public int enemyCount;
+
+    @Param({"0", "8"})
+    public int bombCount;
+
+    private GameMap map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new HeadlessSimulation(SyntheticMap.generate(mapSize, enemyCount, 42)).getMap();
+        SyntheticMap.plantBombs(map, bombCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        map.dispose();
+    }
+
+    @Benchmark
+    public int remainingEnemies() {
+        return map.getRemainingEnemies();
+    }
+
+    @Benchmark
+    public void pickUpPowerUps() {
+        // The player's start tile never holds a power-up, so this measures the lookup alone
+        map.pickUpPowerUps(1, 1);
+    }
+}
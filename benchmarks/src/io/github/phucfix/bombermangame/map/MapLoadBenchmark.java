@@ -0,0 +1,62 @@
+package io.github.phucfix.bombermangame.map;
+
+import io.github.phucfix.bombermangame.headless.HeadlessBombermanGame;
+import io.github.phucfix.bombermangame.headless.HeadlessSimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a {@link GameMap}: from a .properties map (reading the lines and
+ * {@link GameMap#parseKeyValueToBuild}) and from a compiled map (see {@link BinaryMap}),
+ * both including the Box2D bodies and the occupancy grid they create.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapLoadBenchmark {
+
+    @Param({"21", "101", "201"})
+    public int mapSize;
+
+    @Param({"10", "1000"})
+    public int enemyCount;
+
+    /** Bombs do not exist in map files; kept so every suite shares the same parameter names. */
+    @Param({"0"})
+    public int bombCount;
+
+    private HeadlessBombermanGame game;
+    private String mapContent;
+    private byte[] compiledMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HeadlessSimulation.initBackend();
+        game = new HeadlessBombermanGame();
+        mapContent = SyntheticMap.generate(mapSize, enemyCount, 42);
+        game.parseMapLines(mapContent.split("\n"));
+        compiledMap = BinaryMap.compile(game.getCoordinatesAndObjects());
+    }
+
+    @Benchmark
+    public int loadProperties() {
+        game.parseMapLines(mapContent.split("\n"));
+        return release(new GameMap(game, game.getCoordinatesAndObjects()));
+    }
+
+    @Benchmark
+    public int loadCompiled() {
+        return release(new GameMap(game, ByteBuffer.wrap(compiledMap)));
+    }
+
+    private static int release(GameMap map) {
+        // Free the native Box2D world straight away, or the benchmark measures the leak instead
+        map.dispose();
+        return map.getMapMaxX();
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.phucfix.bombermangame.map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates classic Bomberman layouts of any size for the benchmarks:
+ * a border of indestructible walls, a pillar on every even tile, and destructible walls
+ * (some hiding power-ups) scattered over the rest. The player starts in the bottom left corner.
+ * The same parameters always give the same map.
+ */
+public class SyntheticMap {
+
+    /** Fraction of the free tiles covered by destructible walls. */
+    private static final float DESTRUCTIBLE_WALL_DENSITY = 0.35f;
+    /** Fraction of the destructible walls that hide a power-up. */
+    private static final float POWER_UP_DENSITY = 0.1f;
+
+    private SyntheticMap() {
+    }
+
+    /**
+     * Generates a map in the same "x,y=object" format as the .properties maps.
+     * @param size The width and height of the map in tiles, including the border.
+     * @param enemyCount The number of enemies, capped at the number of free tiles.
+     * @param seed The seed for the random layout.
+     * @return The content of the map file.
+     */
+    public static String generate(int size, int enemyCount, long seed) {
+        Random random = new Random(seed);
+        StringBuilder map = new StringBuilder();
+        List<int[]> freeTiles = new ArrayList<>();
+        int[] lastWall = null;
+
+        map.append("1,1=2\n");
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                boolean border = x == 0 || y == 0 || x == size - 1 || y == size - 1;
+                boolean pillar = x % 2 == 0 && y % 2 == 0;
+                boolean nearPlayer = x + y <= 3;
+                if (border || pillar) {
+                    map.append(x).append(',').append(y).append("=0\n");
+                } else if (nearPlayer) {
+                    continue;
+                } else if (random.nextFloat() < DESTRUCTIBLE_WALL_DENSITY) {
+                    float roll = random.nextFloat();
+                    String object = roll < POWER_UP_DENSITY / 2 ? "5" : roll < POWER_UP_DENSITY ? "6" : "1";
+                    map.append(x).append(',').append(y).append('=').append(object).append('\n');
+                    lastWall = new int[]{x, y};
+                } else {
+                    freeTiles.add(new int[]{x, y});
+                }
+            }
+        }
+
+        if (lastWall != null) {
+            map.append(lastWall[0]).append(',').append(lastWall[1]).append("=4\n");
+        }
+        for (int i = 0; i < enemyCount && !freeTiles.isEmpty(); i++) {
+            int[] tile = freeTiles.remove(random.nextInt(freeTiles.size()));
+            map.append(tile[0]).append(',').append(tile[1]).append("=3\n");
+        }
+        return map.toString();
+    }
+
+    /**
+     * Plants bombs on free tiles of the map until the given number of bombs is live.
+     * The bomb limit is raised as needed, so this ignores the concurrent bomb power-ups.
+     * @param map The map to plant the bombs on.
+     * @param bombCount The number of live bombs wanted.
+     */
+    public static void plantBombs(GameMap map, int bombCount) {
+        Bomb.setMaxConcurrentBombs(Math.max(Bomb.getMaxConcurrentBombs(), bombCount));
+        OccupancyGrid occupancy = map.getOccupancy();
+        for (int x = 1; x < occupancy.getWidth() && Bomb.getActiveBombs() < bombCount; x += 2) {
+            for (int y = 1; y < occupancy.getHeight() && Bomb.getActiveBombs() < bombCount; y += 2) {
+                if (!occupancy.has(x, y, (byte) (OccupancyGrid.INDESTRUCTIBLE_WALL | OccupancyGrid.DESTRUCTIBLE_WALL | OccupancyGrid.BOMB))) {
+                    map.plantBomb(x, y);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.phucfix.bombermangame.map;
+
+import io.github.phucfix.bombermangame.headless.HeadlessSimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one full {@link GameMap#tick()}: player, enemies, bombs, segments, pickups and physics.
+ * Bombs that explode are replanted after every tick, so the bomb count stays constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickBenchmark {
+
+    @Param({"21", "101", "201"})
+    public int mapSize;
+
+    @Param({"10", "100", "1000"})
+    public int enemyCount;
+
+    @Param({"0", "8"})
+    public int bombCount;
+
+    /** The physics backend, see {@link PhysicsBackend#PROPERTY}. */
+    @Param({"box2d", "grid"})
+    public String physics;
+
+    private HeadlessSimulation simulation;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        System.setProperty(PhysicsBackend.PROPERTY, physics);
+        simulation = new HeadlessSimulation(SyntheticMap.generate(mapSize, enemyCount, 42));
+        SyntheticMap.plantBombs(simulation.getMap(), bombCount);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        simulation.getMap().dispose();
+    }
+
+    @Benchmark
+    public void tick() {
+        simulation.tick();
+        SyntheticMap.plantBombs(simulation.getMap(), bombCount);
+    }
+}
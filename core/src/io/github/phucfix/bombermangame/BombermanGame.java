@@ -4,29 +4,41 @@
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.TimeUtils;
 import games.spooky.gdx.nativefilechooser.NativeFileChooserCallback;
 import games.spooky.gdx.nativefilechooser.NativeFileChooserConfiguration;
 import games.spooky.gdx.nativefilechooser.NativeFileChooserIntent;
 import io.github.phucfix.bombermangame.audio.MusicTrack;
+import io.github.phucfix.bombermangame.audio.SoundEffect;
+import io.github.phucfix.bombermangame.map.BinaryMap;
 import io.github.phucfix.bombermangame.map.GameMap;
 import io.github.phucfix.bombermangame.screen.*;
 import games.spooky.gdx.nativefilechooser.NativeFileChooser;
 import io.github.phucfix.bombermangame.map.Bomb;
+import io.github.phucfix.bombermangame.texture.SpriteAtlas;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * The BomberQuestGame class represents the core of the Bomber Quest game.
  * It manages the screens and global resources like SpriteBatch and Skin.
+ * All files are loaded by an {@link AssetManager} in the background: the menu only waits for the skin and its own music,
+ * and the rest is loaded while the menu is shown, or behind a {@link LoadingScreen} if a level is started before it is done.
  */
 public class BombermanGame extends Game {
 
+    /** The UI skin, the only asset besides the menu music needed for the first frame. */
+    private static final String SKIN_FILE = "skin/craftacular/craftacular-ui.json";
+
     /**
      * Sprite Batch for rendering game elements.
      * This eats a lot of memory, so we only want one of these.
@@ -36,6 +48,13 @@ public class BombermanGame extends Game {
     /** The game's UI skin. This is used to style the game's UI elements. */
     private Skin skin;
 
+    /** Loads and owns every file of the game, see {@link #create()}. */
+    private AssetManager assets;
+    /// Set once every queued asset is loaded and the spritesheets are packed
+    private boolean assetsLoaded = false;
+    /// When create() started, until the first frame of the menu has been logged
+    private long startupNanos;
+
     private boolean isMultiLevelSelected;
     
     /**
@@ -76,46 +95,85 @@ public BombermanGame(NativeFileChooser fileChooser) {
      */
     @Override
     public void create() {
+        startupNanos = TimeUtils.nanoTime();
         // Create sprite batch for rendering
         this.spriteBatch = new SpriteBatch();
 
-        // Load UI Skin
-        this.skin = new Skin(Gdx.files.internal("skin/craftacular/craftacular-ui.json"));
-
-        hud = new Hud(spriteBatch, getSkin().getFont("font"), this);
-
+        // Queue every file, the menu's first: the manager loads them in order
+        assets = new AssetManager();
+        assets.load(SKIN_FILE, Skin.class);
+        MusicTrack.queue(assets);
+        SoundEffect.queue(assets);
+        SpriteAtlas.queue(assets);
 
         // Load default map from "map-1.properties"
 //        loadDefaultMap();
 
-        // Navigate to the menu screen
+        // Navigate to the menu screen as soon as it can be drawn
+        setScreen(new LoadingScreen(this, this::finishStartup, SKIN_FILE, MusicTrack.MENU_BGM.getPath()));
+    }
+
+    /**
+     * Called once the menu's assets are loaded: sets up what needs the skin and shows the menu.
+     */
+    private void finishStartup() {
+        this.skin = assets.get(SKIN_FILE, Skin.class);
+        hud = new Hud(spriteBatch, getSkin().getFont("font"), this);
         goToMenu();
     }
 
     /**
-     * Loads the default map from "map-1.properties" in /maps
+     * Renders the current screen, loads a little more of the assets, then plays the sound effects triggered during the frame.
      */
-    public void loadDefaultMap() {
-        /// By the same logic as in doYourMagic()
-        isMultiLevelSelected = false;
-        coordinatesAndObjects.clear();
-        FileHandle defaultMapFile = Gdx.files.internal("maps/map-1.properties");
-        String mapContent = defaultMapFile.readString();
-        String[] linesOfText = mapContent.split("\n");
+    @Override
+    public void render() {
+        boolean firstMenuFrame = startupNanos != 0 && getScreen() instanceof MenuScreen;
+        super.render();
+        if (firstMenuFrame) {
+            Gdx.app.log("BombermanGame", "First interactive frame " + TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(startupNanos)) + " ms after start-up");
+            startupNanos = 0;
+        }
+        /// Only takes what is ready, decoding happens on the asset manager's own thread
+        updateAssets(0);
+        SoundEffect.flush();
+    }
 
-        coordinatesAndObjects.clear();// Clear any previous data
+    /**
+     * Loads the queued assets for at most the given time, and packs the spritesheets once every asset is loaded.
+     * Must be called on the render thread.
+     * @param millis How long to load for, in milliseconds. With 0, only the assets whose loading has finished in the background are taken in.
+     * @return Whether every asset is loaded.
+     */
+    public boolean updateAssets(int millis) {
+        if (!assetsLoaded && (millis > 0 ? assets.update(millis) : assets.update())) {
+            SpriteAtlas.pack(assets);
+            assetsLoaded = true;
+        }
+        return assetsLoaded;
+    }
 
-        for (String line : linesOfText) {
-            line = line.trim();
-            if (line.isEmpty() || line.startsWith("#")) {
-                continue;
-            }
-            String[] keyValue = line.split("=");
-            coordinatesAndObjects.put(keyValue[0].trim(), keyValue[1].trim());
+    /**
+     * Runs the given action once every asset is loaded, right away if they are, otherwise behind a {@link LoadingScreen}.
+     * Used for everything that starts a level, which needs the spritesheets and the level's audio.
+     * @param action What to do, usually switching to another screen.
+     */
+    public void afterLoading(Runnable action) {
+        if (updateAssets(0)) {
+            action.run();
+        } else {
+            setScreen(new LoadingScreen(this, action));
         }
+    }
+
+    /**
+     * Loads the default map "map-1" from /maps
+     */
+    public void loadDefaultMap() {
+        /// By the same logic as in doYourMagic()
+        isMultiLevelSelected = false;
 
         // Initialize the GameMap object with default map
-        this.map = new GameMap(this, coordinatesAndObjects);
+        setMap(loadBundledMap("map-1"));
         MusicTrack.MENU_BGM.stop();
         this.setScreen(new GameScreen(this));
     }
@@ -123,36 +181,36 @@ public void loadDefaultMap() {
     public void loadChallenge() {
         /// By the same logic as in doYourMagic()
         isMultiLevelSelected = true;
-        coordinatesAndObjects.clear();
-        FileHandle defaultMapFile = Gdx.files.internal("maps/map-2.properties");
-        String mapContent = defaultMapFile.readString();
-        String[] linesOfText = mapContent.split("\n");
-
-        coordinatesAndObjects.clear();// Clear any previous data
-        for (String line : linesOfText) {
-            line = line.trim();
-            if (line.isEmpty() || line.startsWith("#")) {
-                continue;
-
-            }
-            String[] keyValue = line.split("=");
-            coordinatesAndObjects.put(keyValue[0].trim(), keyValue[1].trim());
-        }
 
         // Initialize the GameMap object with default map
-        this.map = new GameMap(this, coordinatesAndObjects);
+        setMap(loadBundledMap("map-2"));
         MusicTrack.MENU_BGM.stop();        MusicTrack.LEVEL_THEME.play();
         this.setScreen(new GameScreen(this));
 
 
     }
 
+    /**
+     * Loads one of the maps shipped in /maps.
+     * The compiled version (see {@link BinaryMap}) is preferred, the .properties file is the fallback.
+     * @param name The name of the map file without extension, e.g. "map-1".
+     * @return The loaded map.
+     */
+    private GameMap loadBundledMap(String name) {
+        FileHandle compiledMapFile = Gdx.files.internal("maps/" + name + BinaryMap.EXTENSION);
+        if (compiledMapFile.exists()) {
+            return new GameMap(this, ByteBuffer.wrap(compiledMapFile.readBytes()));
+        }
+        FileHandle mapFile = Gdx.files.internal("maps/" + name + ".properties");
+        parseMapLines(mapFile.readString().split("\n"));
+        return new GameMap(this, coordinatesAndObjects);
+    }
+
     /**
      * Switches to the menu screen.
      */
     public void goToMenu() {
-        MusicTrack.PLAYER_MOVE1.stop();
-        MusicTrack.PLAYER_MOVE2.stop();
+        SoundEffect.stopLoops();
         MusicTrack.LEVEL_THEME.stop();
         MusicTrack.LEVEL_THEME2.stop();
         MusicTrack.MENU_BGM.play();
@@ -182,8 +240,7 @@ public void goToLostScreen(){
         Hud.setTimerPaused(true);
         MusicTrack.LEVEL_THEME.stop();
         MusicTrack.LEVEL_THEME2.stop();
-        MusicTrack.PLAYER_MOVE1.stop();
-        MusicTrack.PLAYER_MOVE2.stop();
+        SoundEffect.stopLoops();
         MusicTrack.GAME_OVER.play();
         this.setScreen(new LostScreen(this));
     }
@@ -202,6 +259,11 @@ public void goToSelectedMap() {
         this.setScreen(new GameScreen(this));
     }
 
+    /** Returns the asset manager, which owns every file of the game. */
+    public AssetManager getAssets() {
+        return assets;
+    }
+
     /** Returns the skin for UI elements. */
     public Skin getSkin() {
         return skin;
@@ -216,6 +278,17 @@ public SpriteBatch getSpriteBatch() {
     public GameMap getMap() {
         return map;
     }
+
+    /**
+     * Replaces the current map, freeing the Box2D world of the previous one.
+     * @param map The new map.
+     */
+    private void setMap(GameMap map) {
+        if (this.map != null) {
+            this.map.dispose();
+        }
+        this.map = map;
+    }
     
     /**
      * Switches to the given screen and disposes of the previous screen.
@@ -264,7 +337,7 @@ public void loadFileChooser() {
         configuration.nameFilter = new FilenameFilter() {
             @Override
             public boolean accept(File dir, String name) {
-                return name.endsWith(".properties");
+                return name.endsWith(".properties") || name.endsWith(BinaryMap.EXTENSION);
             }
         };
 
@@ -272,6 +345,10 @@ public boolean accept(File dir, String name) {
         NativeFileChooserCallback fileChooserCallback = new NativeFileChooserCallback() {
             @Override
             public void onFileChosen(FileHandle file) {
+                if (file.name().endsWith(BinaryMap.EXTENSION)) {
+                    loadCompiledMap(file);
+                    return;
+                }
 
                 // Read the properties files
                 String EntireText = file.readString();
@@ -301,10 +378,48 @@ public void onError(Exception e) {
     // Converting array String into hashmap and then invoking the Game Map constructor
     // The Constructor will parse hashmap to GameMap, creating object in that map
     public void doYourMagic(String[] linesOfText) {
-        /// VVI to clear the previous objects.
-        coordinatesAndObjects.clear();
         Bomb.setActiveBombs(0);
         Bomb.setMaxConcurrentBombs(1);
+        parseMapLines(linesOfText);
+
+        setMap(new GameMap(this, coordinatesAndObjects));
+        goToSelectedMap();
+    }
+
+    /**
+     * Starts the map from a compiled map file chosen by the user.
+     * @param file The compiled map file.
+     */
+    public void loadCompiledMap(FileHandle file) {
+        Bomb.setActiveBombs(0);
+        Bomb.setMaxConcurrentBombs(1);
+        try {
+            setMap(new GameMap(this, ByteBuffer.wrap(file.readBytes())));
+        } catch (IllegalArgumentException e) {
+            Gdx.app.error("BombermanGame", "Could not load the map " + file.name(), e);
+            goToMenu();
+            return;
+        }
+        goToSelectedMap();
+    }
+
+    /**
+     * Reads the lines of a map file ("x,y=object", "#" starts a comment) into {@link #coordinatesAndObjects}.
+     * Any previously loaded map data is cleared first.
+     * @param linesOfText The lines of the map file.
+     */
+    public void parseMapLines(String[] linesOfText) {
+        /// VVI to clear the previous objects.
+        coordinatesAndObjects.clear();
+        parseMapLines(linesOfText, coordinatesAndObjects);
+    }
+
+    /**
+     * Reads the lines of a map file ("x,y=object", "#" starts a comment) into the given map.
+     * @param linesOfText The lines of the map file.
+     * @param coordinatesAndObjects Where to put the "x,y" = object entries.
+     */
+    public static void parseMapLines(String[] linesOfText, Map<String, String> coordinatesAndObjects) {
         for (String line : linesOfText) {
             line = line.trim();
             if (line.isEmpty() || line.startsWith("#")) {
@@ -313,9 +428,6 @@ public void doYourMagic(String[] linesOfText) {
             String[] keyValue = line.split("=");
             coordinatesAndObjects.put(keyValue[0].trim(), keyValue[1].trim());
         }
-
-        this.map = new GameMap(this, coordinatesAndObjects);
-        goToSelectedMap();
     }
 
     /** Cleans up resources when the game is disposed. */
@@ -324,14 +436,14 @@ public void dispose() {
         getScreen().hide(); // Hide the current screen
         getScreen().dispose(); // Dispose the current screen
         spriteBatch.dispose(); // Dispose the spriteBatch
-        skin.dispose(); // Dispose the skin
+        assets.dispose(); // Dispose the skin, the music and the sound effects
+        SpriteAtlas.dispose(); // Dispose the packed spritesheet pages
     }
 
     public void goToVictoryScreen(){
         MusicTrack.LEVEL_THEME.stop();
         MusicTrack.LEVEL_THEME2.stop();
-        MusicTrack.PLAYER_MOVE1.stop();
-        MusicTrack.PLAYER_MOVE2.stop();
+        SoundEffect.stopLoops();
         MusicTrack.LEVEL_COMPLETED.play();
         this.setScreen(new VictoryScreen(this));
 
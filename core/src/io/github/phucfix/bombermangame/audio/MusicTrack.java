@@ -1,6 +1,6 @@
 package io.github.phucfix.bombermangame.audio;
 
-import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Music;
 
 /**
@@ -9,42 +9,78 @@
  * Using an enum for this purpose is a good practice, as it allows for easy management of the music tracks
  * and prevents the same track from being loaded into memory multiple times.
  * See the assets/audio folder for the actual music files.
+ * Short sound effects are not streamed, they are {@link SoundEffect}s.
+ * The files are opened by the game's {@link AssetManager}, see {@link #queue(AssetManager)}; a track that is not loaded yet is silent.
  * Feel free to add your own music tracks and use them in the game!
  */
 public enum MusicTrack {
 
     MENU_BGM("menu-bgm.mp3",false),
-    PLAYER_MOVE1("player-moving1.mp3", true),
-    PLAYER_MOVE2("player-moving2.mp3", true),
     LEVEL_THEME("level-theme.mp3", true),
     LEVEL_THEME2("level-theme2.mp3", false),
     LEVEL_COMPLETED("level-complete.mp3", false),
-    PLAYER_DEMISE("player-demise.mp3", false),
-    BOMB_PLANT("bomb-plant-sfx.mp3",false),
-    BOMB_EXPLOSION("bomb-explosion-sfx.mp3",false),
-    POWERUP_TAKEN("power-up-sfx.mp3",false),
-    GAME_PAUSE("game-pause-sfx.mp3",false),
-    GAME_OVER("game-over.mp3",false),
-    ENEMIES_CLEAR("enemies-clear.mp3",false);
-
-    /** The music file owned by this variant. */
-    private final Music music;
+    GAME_OVER("game-over.mp3",false);
+
+    /// The tracks are opened by this manager, set by queue()
+    private static AssetManager assets;
+
+    /** The path of the music file owned by this variant. */
+    private final String path;
+    private final boolean loop;
+    /** The music, once the asset manager has opened it. */
+    private Music music;
     private static float volume = 0.15f;
 
     MusicTrack(String fileName, boolean loop) {
-        this.music = Gdx.audio.newMusic(Gdx.files.internal("audio/" + fileName));
-        this.music.setLooping(loop);
-        this.music.setVolume(0.15f);
+        this.path = "audio/" + fileName;
+        this.loop = loop;
+    }
+
+    /**
+     * Queues every track on the asset manager, in the order they are declared, so the menu's track comes first.
+     * @param assets The game's asset manager.
+     */
+    public static void queue(AssetManager assets) {
+        MusicTrack.assets = assets;
+        for (MusicTrack track : values()) {
+            assets.load(track.path, Music.class);
+        }
+    }
+
+    /** Returns the path of the music file, as the asset manager knows it. */
+    public String getPath() {
+        return path;
+    }
+
+    /** Returns whether the asset manager has opened this track. */
+    public boolean isLoaded() {
+        return assets != null && assets.isLoaded(path);
+    }
+
+    /** Returns the music, or null if it is not loaded yet. */
+    private Music music() {
+        if (music == null && isLoaded()) {
+            music = assets.get(path, Music.class);
+            music.setLooping(loop);
+            music.setVolume(volume);
+        }
+        return music;
     }
-    
+
     /** Play this music track. */
     public void play() {
-        this.music.play();
+        Music music = music();
+        if (music != null) {
+            music.play();
+        }
     }
 
     /** Stop music track */
     public void stop() {
-        this.music.stop();
+        Music music = music();
+        if (music != null) {
+            music.stop();
+        }
     }
 
     public static void setVolume(float newVolume) {
@@ -57,7 +93,10 @@ public static void setVolume(float newVolume) {
     }
 
     private void updateVolume() {
-        this.music.setVolume(volume);
+        /// Tracks that are not loaded yet get the volume when they are
+        if (music != null) {
+            music.setVolume(volume);
+        }
     }
 
     public static float getVolume() {
@@ -0,0 +1,180 @@
+package io.github.phucfix.bombermangame.audio;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Sound;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The short sound effects of the game. Unlike a {@link MusicTrack}, which is streamed from its file while it plays,
+ * every effect is decoded into memory once, so playing it is cheap and can overlap with itself.
+ * <p>
+ * Effects are {@link #trigger() triggered} from anywhere, including a simulation thread, and played on the render thread
+ * by {@link #flush()}, which the game calls once per frame. At most {@link #MAX_VOICES} effects sound at once:
+ * when all voices are busy, a new effect takes the voice of the least important one that is not more important than itself,
+ * or is dropped.
+ * The sounds are decoded by the game's {@link AssetManager}, see {@link #queue(AssetManager)}; an effect that is not loaded yet is dropped.
+ */
+public enum SoundEffect {
+
+    PLAYER_DEMISE("player-demise.mp3", 4, 1.1f),
+    ENEMIES_CLEAR("enemies-clear.mp3", 4, 2.0f),
+    BOMB_EXPLOSION("bomb-explosion-sfx.mp3", 3, 1.9f),
+    POWERUP_TAKEN("power-up-sfx.mp3", 3, 0.45f),
+    BOMB_PLANT("bomb-plant-sfx.mp3", 2, 0.65f),
+    GAME_PAUSE("game-pause-sfx.mp3", 2, 1.6f),
+    /// The footsteps are looped for as long as the player walks, see loop()
+    PLAYER_MOVE1("player-moving1.mp3", 1, 0.25f),
+    PLAYER_MOVE2("player-moving2.mp3", 1, 0.25f);
+
+    /** The number of effects that can sound at once, leaving the rest of the audio device's sources to the music. */
+    public static final int MAX_VOICES = 12;
+
+    /// The voices, in fixed slots: which effect is playing, its sound id, and when it ends (System.nanoTime(), Long.MAX_VALUE for a loop)
+    private static final SoundEffect[] voiceEffects = new SoundEffect[MAX_VOICES];
+    private static final long[] voiceIds = new long[MAX_VOICES];
+    private static final long[] voiceEnds = new long[MAX_VOICES];
+    /// The effects from the most to the least important, the order flush() plays them in
+    private static SoundEffect[] byPriority;
+    /// The sounds are decoded by this manager, set by queue()
+    private static AssetManager assets;
+
+    /** The path of the sound file owned by this variant. */
+    private final String path;
+    /** The decoded sound, once the asset manager has loaded it. */
+    private Sound sound;
+    /** Effects with a higher priority take the voices of effects with a lower one. */
+    private final int priority;
+    private final long durationNanos;
+    /** Triggers since the last flush, possibly from other threads. */
+    private final AtomicInteger pending = new AtomicInteger();
+    /** The sound id of the running loop, or -1. */
+    private long loopId = -1;
+
+    SoundEffect(String fileName, int priority, float duration) {
+        this.path = "audio/" + fileName;
+        this.priority = priority;
+        this.durationNanos = (long) (duration * 1_000_000_000L);
+    }
+
+    /**
+     * Queues every effect on the asset manager.
+     * @param assets The game's asset manager.
+     */
+    public static void queue(AssetManager assets) {
+        SoundEffect.assets = assets;
+        for (SoundEffect effect : values()) {
+            assets.load(effect.path, Sound.class);
+        }
+    }
+
+    /** Asks for this effect to be played on the next {@link #flush()}. Can be called from any thread. */
+    public void trigger() {
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Plays every effect triggered since the last flush, the most important ones first.
+     * Called once per frame on the render thread.
+     */
+    public static void flush() {
+        if (byPriority == null) {
+            byPriority = values().clone();
+            Arrays.sort(byPriority, Comparator.comparingInt((SoundEffect effect) -> effect.priority).reversed());
+        }
+        long now = System.nanoTime();
+        for (SoundEffect effect : byPriority) {
+            for (int count = effect.pending.getAndSet(0); count > 0; count--) {
+                effect.start(now, false);
+            }
+        }
+    }
+
+    /**
+     * Starts looping this effect, unless it is looping already. Called on the render thread, e.g. when the player starts walking.
+     */
+    public void loop() {
+        if (loopId == -1) {
+            start(System.nanoTime(), true);
+        }
+    }
+
+    /** Stops this effect's loop, if it is running. Called on the render thread. */
+    public void stopLoop() {
+        if (loopId == -1) {
+            return;
+        }
+        for (int voice = 0; voice < MAX_VOICES; voice++) {
+            if (voiceEffects[voice] == this && voiceIds[voice] == loopId) {
+                release(voice);
+                return;
+            }
+        }
+        loopId = -1;
+    }
+
+    /** Stops every loop, e.g. when the level is over. Called on the render thread. */
+    public static void stopLoops() {
+        for (SoundEffect effect : values()) {
+            effect.stopLoop();
+        }
+    }
+
+    private void start(long now, boolean looping) {
+        if (sound == null) {
+            if (assets == null || !assets.isLoaded(path)) {
+                return;
+            }
+            sound = assets.get(path, Sound.class);
+        }
+        int voice = findVoice(now);
+        if (voice == -1) {
+            return;
+        }
+        float volume = MusicTrack.getVolume();
+        long id = looping ? sound.loop(volume) : sound.play(volume);
+        if (id == -1) {
+            return;
+        }
+        voiceEffects[voice] = this;
+        voiceIds[voice] = id;
+        voiceEnds[voice] = looping ? Long.MAX_VALUE : now + durationNanos;
+        if (looping) {
+            loopId = id;
+        }
+    }
+
+    /**
+     * Finds a voice for this effect: a free one, or else the one of the least important effect, the one ending soonest among equals.
+     * @return The voice, or -1 if every voice plays something more important.
+     */
+    private int findVoice(long now) {
+        int victim = -1;
+        for (int voice = 0; voice < MAX_VOICES; voice++) {
+            SoundEffect playing = voiceEffects[voice];
+            if (playing == null || voiceEnds[voice] <= now) {
+                voiceEffects[voice] = null;
+                return voice;
+            }
+            if (playing.priority <= priority && (victim == -1 || playing.priority < voiceEffects[victim].priority
+                    || playing.priority == voiceEffects[victim].priority && voiceEnds[voice] < voiceEnds[victim])) {
+                victim = voice;
+            }
+        }
+        if (victim != -1) {
+            release(victim);
+        }
+        return victim;
+    }
+
+    private static void release(int voice) {
+        SoundEffect playing = voiceEffects[voice];
+        playing.sound.stop(voiceIds[voice]);
+        if (playing.loopId == voiceIds[voice]) {
+            playing.loopId = -1;
+        }
+        voiceEffects[voice] = null;
+    }
+}
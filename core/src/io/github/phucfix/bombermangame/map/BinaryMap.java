@@ -0,0 +1,162 @@
+package io.github.phucfix.bombermangame.map;
+
+import io.github.phucfix.bombermangame.BombermanGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * The compiled map format, a compact binary version of the .properties map files.
+ * Layout (big endian):
+ * <pre>
+ * int   magic     "BQMP"
+ * byte  version
+ * int   width     in tiles
+ * int   height    in tiles
+ * byte  tiles[width * height]   row by row from y = 0, one map file code per tile, or {@link #EMPTY}
+ * int   checksum  CRC32 of everything before it
+ * </pre>
+ * {@link GameMap#GameMap(BombermanGame, ByteBuffer)} loads it straight from a {@link ByteBuffer},
+ * and {@link #main(String[])} compiles .properties maps into it.
+ */
+public final class BinaryMap {
+
+    /** The file extension of compiled maps. */
+    public static final String EXTENSION = ".bqmap";
+    /** "BQMP" in ASCII. */
+    public static final int MAGIC = 0x42514D50;
+    public static final byte VERSION = 1;
+    /** The code of a tile with nothing on it. */
+    public static final byte EMPTY = -1;
+    /** The highest object code of the map files (6 = bomb blast power-up). */
+    private static final int MAX_OBJECT = 6;
+    private static final int HEADER_SIZE = 4 + 1 + 4 + 4;
+    private static final int CHECKSUM_SIZE = 4;
+
+    /** The dimensions read from the header of a compiled map. */
+    public record Header(int width, int height) {
+    }
+
+    private BinaryMap() {
+    }
+
+    /**
+     * Compiles parsed map data into the binary format.
+     * Entries with an invalid coordinate or object code are skipped.
+     * @param coordinatesAndObjects The "x,y" = object entries of a map file.
+     * @return The compiled map.
+     */
+    public static byte[] compile(Map<String, String> coordinatesAndObjects) {
+        int maxX = 0;
+        int maxY = 0;
+        List<int[]> tiles = new ArrayList<>();
+        for (Map.Entry<String, String> entry : coordinatesAndObjects.entrySet()) {
+            try {
+                String[] coordinates = entry.getKey().split(",");
+                int x = Integer.parseInt(coordinates[0].trim());
+                int y = Integer.parseInt(coordinates[1].trim());
+                int object = Integer.parseInt(entry.getValue().trim());
+                if (x < 0 || y < 0 || object < 0 || object > MAX_OBJECT) {
+                    throw new IllegalArgumentException();
+                }
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                tiles.add(new int[]{x, y, object});
+            } catch (Exception e) {
+                System.err.println("Invalid map entry: " + entry.getKey() + "=" + entry.getValue());
+            }
+        }
+
+        int width = maxX + 1;
+        int height = maxY + 1;
+        byte[] data = new byte[HEADER_SIZE + width * height + CHECKSUM_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        buffer.putInt(MAGIC).put(VERSION).putInt(width).putInt(height);
+        Arrays.fill(data, HEADER_SIZE, HEADER_SIZE + width * height, EMPTY);
+        for (int[] tile : tiles) {
+            data[HEADER_SIZE + tile[1] * width + tile[0]] = (byte) tile[2];
+        }
+
+        CRC32 checksum = new CRC32();
+        checksum.update(data, 0, HEADER_SIZE + width * height);
+        buffer.putInt(HEADER_SIZE + width * height, (int) checksum.getValue());
+        return data;
+    }
+
+    /**
+     * Reads and verifies the header and checksum of a compiled map.
+     * Afterwards the buffer is positioned at the first tile.
+     * @param buffer The compiled map, positioned at its first byte.
+     * @return The dimensions of the map.
+     * @throws IllegalArgumentException if the data is not a valid compiled map.
+     */
+    public static Header readHeader(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE + CHECKSUM_SIZE || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a compiled map");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported compiled map version " + version);
+        }
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        if (width <= 0 || height <= 0 || buffer.remaining() < (long) width * height + CHECKSUM_SIZE) {
+            throw new IllegalArgumentException("Compiled map is truncated");
+        }
+
+        int tilesEnd = buffer.position() + width * height;
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate().position(start).limit(tilesEnd));
+        if ((int) checksum.getValue() != buffer.getInt(tilesEnd)) {
+            throw new IllegalArgumentException("Compiled map checksum mismatch");
+        }
+        return new Header(width, height);
+    }
+
+    /**
+     * Compiles .properties maps into compiled maps, next to them or into the output directory.
+     * Usage: BinaryMap [--out directory] [map file or directory]...
+     * Directories are searched for .properties files (not recursively).
+     */
+    public static void main(String[] args) throws IOException {
+        Path outputDirectory = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--out")) {
+                outputDirectory = Path.of(args[++i]);
+                Files.createDirectories(outputDirectory);
+                continue;
+            }
+            Path path = Path.of(args[i]);
+            if (Files.isDirectory(path)) {
+                try (var files = Files.list(path)) {
+                    for (Path file : files.filter(f -> f.toString().endsWith(".properties")).toList()) {
+                        compileFile(file, outputDirectory);
+                    }
+                }
+            } else {
+                compileFile(path, outputDirectory);
+            }
+        }
+    }
+
+    private static void compileFile(Path propertiesFile, Path outputDirectory) throws IOException {
+        HashMap<String, String> coordinatesAndObjects = new HashMap<>();
+        BombermanGame.parseMapLines(Files.readString(propertiesFile).split("\n"), coordinatesAndObjects);
+
+        String name = propertiesFile.getFileName().toString();
+        String compiledName = name.substring(0, name.length() - ".properties".length()) + EXTENSION;
+        Path compiledFile = outputDirectory != null ? outputDirectory.resolve(compiledName) : propertiesFile.resolveSibling(compiledName);
+        byte[] compiled = compile(coordinatesAndObjects);
+        Files.write(compiledFile, compiled);
+        System.out.println("Compiled " + propertiesFile + " -> " + compiledFile + " (" + compiled.length + " bytes)");
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.phucfix.bombermangame.map;
+
+/**
+ * The tiles a bomb's blast covers: its own tile, and up to its radius in each of the four directions,
+ * where an arm stops in front of an indestructible wall. Destructible walls are destroyed, but do not stop the blast.
+ * Both the actual explosions of the {@link GameMap} and the predicted ones of the {@link DangerField} walk a blast through here,
+ * so they always agree.
+ */
+public final class BlastPattern {
+
+    /** Gets every tile of a blast, in the order they are walked. */
+    public interface Visitor {
+        /**
+         * @param x The X position of the tile.
+         * @param y The Y position of the tile.
+         * @param directionX The direction of the arm along the X axis, 0 for the bomb's own tile.
+         * @param directionY The direction of the arm along the Y axis, 0 for the bomb's own tile.
+         * @param isEnd Whether this is the last tile of a full-length arm.
+         */
+        void visit(int x, int y, int directionX, int directionY, boolean isEnd);
+    }
+
+    /// Directions of the explosion's arms: up, down, left, right
+    private static final int[][] DIRECTIONS = {
+            {0, 1},
+            {0, -1},
+            {-1, 0},
+            {1, 0}
+    };
+
+    private BlastPattern() {
+    }
+
+    /**
+     * Walks the blast of a bomb: first the bomb's tile, then each arm from the bomb outwards.
+     * @param grid The grid that tells where the indestructible walls are.
+     * @param x The X position of the bomb's tile.
+     * @param y The Y position of the bomb's tile.
+     * @param radius The number of tiles each arm reaches.
+     * @param visitor Gets each tile of the blast.
+     */
+    public static void walk(OccupancyGrid grid, int x, int y, int radius, Visitor visitor) {
+        visitor.visit(x, y, 0, 0, false);
+        for (int[] dir : DIRECTIONS) {
+            for (int i = 1; i <= radius; i++) {
+                int tileX = x + dir[0] * i;
+                int tileY = y + dir[1] * i;
+                /// if there is an Indestructible wall at a segment the arm ends,
+                /// nothing beyond the wall is reached
+                if (grid.has(tileX, tileY, OccupancyGrid.INDESTRUCTIBLE_WALL)) {
+                    break;
+                }
+                visitor.visit(tileX, tileY, dir[0], dir[1], i == radius);
+            }
+        }
+    }
+}
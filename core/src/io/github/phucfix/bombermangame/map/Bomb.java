@@ -1,8 +1,8 @@
 package io.github.phucfix.bombermangame.map;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.physics.box2d.*;
 import io.github.phucfix.bombermangame.texture.Animations;
+import io.github.phucfix.bombermangame.texture.Appearance;
 import io.github.phucfix.bombermangame.texture.Drawable;
 
 /**
@@ -16,9 +16,15 @@ public class Bomb implements Drawable {
     // We would normally get the position from the hitbox, but since we don't need to move the bomb, we can store the position directly.
     private final float x;
     private final float y;
-    private float bombTimer;
-    private final Body hitbox;
+    /// The fuse is measured on the map's clock, from the tick the bomb was planted on
+    private final SimulationClock clock;
+    private final long plantedTick;
+    private final Hitbox hitbox;
+    /// The blast radius when the bomb was planted; power-ups picked up later only make the next bombs bigger
+    private final int radius;
     public static final float BOMB_EXPLOSION_TIME = 3 ;
+    /// A fresh bomb stays a sensor at least this long, and after that until the player has stepped off it
+    public static final float SENSOR_TIME = 0.7f;
 
     /// Static as it changes for all the bomb objects
     private static int activeBombs = 0;
@@ -31,74 +37,68 @@ public class Bomb implements Drawable {
     private static final int MAX_BOMB_RADIUS = 8;
 
     private boolean bombActive ;
+    /// The scheduled explosion, cancelled when a blast sets the bomb off early
+    private TimerWheel.Timer fuse;
+    /// The tick the bomb is expected to go off, earlier than its fuse if it lies in the blast of an earlier bomb, see DangerField
+    private long blastTick;
 
 
 
     /**
      * Create a bomb at the given position.
-     * @param world The Box2D world to add the chest's hitbox to.
+     * The GameMap schedules the explosion; the bomb itself only knows how long it has been ticking.
+     * @param clock The clock of the map, the fuse starts at its current tick.
+     * @param hitbox The bomb's hitbox, either new from {@link #createHitbox(PhysicsBackend)} or reused from an exploded bomb.
      * @param x The X position.
      * @param y The Y position.
+     * @param radius The number of tiles the blast reaches in each direction.
      */
-    public Bomb(World world, float x, float y) {
+    public Bomb(SimulationClock clock, Hitbox hitbox, float x, float y, int radius) {
         this.x = x;
         this.y = y;
-        this.hitbox = createHitbox(world, x, y);
-        this.bombTimer = 0;
+        this.radius = radius;
+        this.hitbox = hitbox;
+        this.hitbox.setPosition(x, y);
+        this.hitbox.setActive(true);
+        // Set the bomb as the owner of the hitbox so we can look up the bomb from the hitbox later.
+        this.hitbox.setOwner(this);
+        this.clock = clock;
+        this.plantedTick = clock.getTick();
         this.bombActive = true;
         this.setSensor(true);
-        // Since the hitbox never moves, and we never need to change it, we don't need to store a reference to it.
     }
 
     /**
-     * Create a Box2D body for the bomb.
-     * @param world The Box2D world to add the body to.
+     * Create a hitbox for a bomb: a square slightly smaller than a tile. The hitbox is placed by the Bomb that uses it.
+     * Hitboxes of exploded bombs are kept by the GameMap and reused for the next bombs.
+     * @param physics The physics to add the hitbox to.
      */
-    private Body createHitbox(World world,float x, float y) {
-        // BodyDef is like a blueprint for the movement properties of the body.
-        BodyDef bodyDef = new BodyDef();
-        // Static bodies never move, but static bodies can collide with them.
-        bodyDef.type = BodyDef.BodyType.StaticBody;
-        // Set the initial position of the body.
-        bodyDef.position.set(x,y);
-        // Create the body in the world using the body definition.
-        Body body = world.createBody(bodyDef);
-        // Now we need to give the body a shape so the physics engine knows how to collide with it.
-        // We'll use a polygon shape for the chest.
-        PolygonShape box = new PolygonShape();
-        // Make the polygon a square with a side length of 1 tile.
-        box.setAsBox(0.4f, 0.4f);
-        // Attach the shape to the body as a fixture.
-        body.createFixture(box, 1.0f);
-        // We're done with the shape, so we should dispose of it to free up memory.
-        box.dispose();
-        // Set the chest as the user data of the body so we can look up the chest from the body later.
-        body.setUserData(this);
-        return body;
-    }
-
-    public void tick(float frameTime) {
-        this.bombTimer += frameTime;
+    public static Hitbox createHitbox(PhysicsBackend physics) {
+        return physics.createBox(null, 0, 0, 0.4f, true);
     }
 
     @Override
     public TextureRegion getCurrentAppearance() {
-        /// If the bomb has exploded, show the explosion animation.
+        /// Once the bomb has exploded, the center explosion segment is drawn in its place
+        float bombTimer = getBombTimer();
         if (bombTimer >= BOMB_EXPLOSION_TIME) {
-            destroy(); /// Deactivate the bomb's hitbox when the bomb explodes.
-            /// Show the explosion animation
-            // If the animation has finished, return null (indicating the segment is gone)
-            TextureRegion explosionAnimation = Animations.EXPLOSION_CENTER.getKeyFrame(this.bombTimer - BOMB_EXPLOSION_TIME,false);
-            if (Animations.EXPLOSION_CENTER.isAnimationFinished(this.bombTimer - BOMB_EXPLOSION_TIME)) {
-                return null;
-            }
-            // Get the current frame based on elapsed time
-            return explosionAnimation;
+            return null;
         }
         /// Shows the ticking animation, looping as long as the bomb is ticking
-        return Animations.BOMB_TICKING.getKeyFrame(this.bombTimer, true);
+        return Animations.BOMB_TICKING.getKeyFrame(bombTimer, true);
     }
 
+    /** Returns how the bomb looks, see {@link Appearance}, or null once it has exploded. */
+    public Appearance getAppearance() {
+        return getBombTimer() >= BOMB_EXPLOSION_TIME ? null : Appearance.BOMB_TICKING;
+    }
+
+    /** Returns the number of tiles this bomb's blast reaches in each direction. */
+    public int getRadius() {
+        return radius;
+    }
+
+    /** Returns the blast radius of the bombs planted from now on. */
     public static int getCurrentBombRadius() {
         return currentBombRadius;
     }
@@ -155,18 +155,39 @@ public float getY() {
     @Override
     public void destroy(){
         hitbox.setActive(false);
+        hitbox.setOwner(null);
         setBombActive(false);
     }
 
+    /** The hitbox of the bomb, handed back to the GameMap for reuse once the bomb has exploded. */
+    Hitbox getHitbox() {
+        return hitbox;
+    }
+
     /// Used to solidify the bomb as soon as the player is outside the bomb grid
     public void setSensor(boolean isSensor) {
-        for (Fixture fixture : hitbox.getFixtureList()) {
-            fixture.setSensor(isSensor);
-        }
+        hitbox.setSensor(isSensor);
+    }
+
+    TimerWheel.Timer getFuse() {
+        return fuse;
+    }
+
+    void setFuse(TimerWheel.Timer fuse) {
+        this.fuse = fuse;
+    }
+
+    long getBlastTick() {
+        return blastTick;
+    }
+
+    void setBlastTick(long blastTick) {
+        this.blastTick = blastTick;
     }
 
+    /** Returns the time in seconds since the bomb was planted. */
     public float getBombTimer() {
-        return bombTimer;
+        return clock.secondsSince(plantedTick);
     }
 
     public boolean isBombActive() {
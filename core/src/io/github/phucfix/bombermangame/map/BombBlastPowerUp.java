@@ -1,14 +1,13 @@
 package io.github.phucfix.bombermangame.map;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.physics.box2d.World;
 import io.github.phucfix.bombermangame.texture.Textures;
 
-public class BombBlastPowerUp extends Exit {
+public class BombBlastPowerUp extends Exit implements PowerUp {
     private boolean powerTaken;
 
-    public BombBlastPowerUp(World world, float x, float y){
-        super(world,x,y);
+    public BombBlastPowerUp(PhysicsBackend physics, float x, float y){
+        super(physics,x,y);
         this.powerTaken = false;
     }
 
@@ -22,10 +21,18 @@ public TextureRegion getCurrentAppearance() {
         }
     }
 
+    /** Makes the blasts of the bombs planted from now on reach one tile further. */
+    @Override
+    public void applyTo(Player player) {
+        Bomb.incrementCurrentBombRadius();
+    }
+
+    @Override
     public boolean isPowerTaken() {
         return powerTaken;
     }
 
+    @Override
     public void setPowerTaken(boolean powerTaken) {
         this.powerTaken = powerTaken;
     }
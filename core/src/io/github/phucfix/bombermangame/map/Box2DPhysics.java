@@ -0,0 +1,339 @@
+package io.github.phucfix.bombermangame.map;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.ArrayList;
+
+/**
+ * The Box2D physics backend: the hitboxes live in one {@link World} without gravity.
+ * Round hitboxes are dynamic bodies with a circle fixture, boxes are static bodies with a square fixture.
+ * Walls are merged to keep the broadphase small: the permanent walls are covered by as few rectangles as possible,
+ * all on one static body, and the other walls are fixtures of one shared body per {@value #WALL_REGION_SIZE}x{@value #WALL_REGION_SIZE} region,
+ * so a single wall can be taken out without rebuilding anything else.
+ */
+public class Box2DPhysics implements PhysicsBackend {
+
+    static {
+        Box2D.init();
+    }
+
+    /// Solver iterations per step
+    private static final int VELOCITY_ITERATIONS = 6;
+    private static final int POSITION_ITERATIONS = 2;
+    /** The width and height in tiles of the regions whose walls share a body. */
+    public static final int WALL_REGION_SIZE = 8;
+
+    private final World world;
+    /// Hitboxes that were destroyed while the world was stepping, destroyed right after the step
+    private final ArrayList<Hitbox> hitboxesToDestroy = new ArrayList<>();
+    /// The shared body of each wall region, keyed by (regionY << 16 | regionX)
+    private final IntMap<Body> wallRegions = new IntMap<>();
+
+    public Box2DPhysics() {
+        this.world = new World(Vector2.Zero, true);
+        this.world.setContactListener(new CollisionDetecter());
+    }
+
+    @Override
+    public Hitbox createCircle(Object owner, float x, float y, float radius) {
+        // BodyDef is like a blueprint for the movement properties of the body.
+        BodyDef bodyDef = new BodyDef();
+        // Dynamic bodies are affected by forces and collisions.
+        bodyDef.type = BodyDef.BodyType.DynamicBody;
+        bodyDef.position.set(x, y);
+        Body body = world.createBody(bodyDef);
+        CircleShape circle = new CircleShape();
+        circle.setRadius(radius);
+        body.createFixture(circle, 1.0f);
+        // We're done with the shape, so we should dispose of it to free up memory.
+        circle.dispose();
+        body.setUserData(owner);
+        return new Box2DHitbox(body);
+    }
+
+    @Override
+    public Hitbox createBox(Object owner, float x, float y, float halfSize, boolean sensor) {
+        // Static bodies never move, but dynamic bodies can collide with them.
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.StaticBody;
+        bodyDef.position.set(x, y);
+        Body body = world.createBody(bodyDef);
+        PolygonShape box = new PolygonShape();
+        box.setAsBox(halfSize, halfSize);
+        body.createFixture(box, 1.0f).setSensor(sensor);
+        box.dispose();
+        body.setUserData(owner);
+        return new Box2DHitbox(body);
+    }
+
+    @Override
+    public Hitbox createWall(Object owner, int x, int y) {
+        int regionX = Math.floorDiv(x, WALL_REGION_SIZE);
+        int regionY = Math.floorDiv(y, WALL_REGION_SIZE);
+        int key = regionY << 16 | (regionX & 0xFFFF);
+        Body region = wallRegions.get(key);
+        if (region == null) {
+            region = createStaticBody();
+            wallRegions.put(key, region);
+        }
+        PolygonShape box = new PolygonShape();
+        box.setAsBox(0.5f, 0.5f, new Vector2(x, y), 0);
+        Fixture fixture = region.createFixture(box, 1.0f);
+        box.dispose();
+        fixture.setUserData(owner);
+        return new WallHitbox(region, key, fixture, x, y);
+    }
+
+    /**
+     * Covers the permanent walls with rectangles: each rectangle starts at the lowest, leftmost wall not covered yet,
+     * grows to the right as far as the walls go and then upwards as long as the whole row below it is walls.
+     * The border of a map becomes four rectangles, a solid block of walls becomes one.
+     */
+    @Override
+    public void createPermanentWalls(OccupancyGrid occupancy, byte flag) {
+        int width = occupancy.getWidth();
+        int height = occupancy.getHeight();
+        boolean[] covered = new boolean[width * height];
+        Body body = null;
+        PolygonShape box = new PolygonShape();
+        Vector2 center = new Vector2();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (covered[y * width + x] || !occupancy.has(x, y, flag)) {
+                    continue;
+                }
+                int runWidth = 1;
+                while (x + runWidth < width && !covered[y * width + x + runWidth] && occupancy.has(x + runWidth, y, flag)) {
+                    runWidth++;
+                }
+                int runHeight = 1;
+                while (y + runHeight < height && isUncoveredRun(occupancy, flag, covered, x, y + runHeight, runWidth)) {
+                    runHeight++;
+                }
+                for (int coveredY = y; coveredY < y + runHeight; coveredY++) {
+                    for (int coveredX = x; coveredX < x + runWidth; coveredX++) {
+                        covered[coveredY * width + coveredX] = true;
+                    }
+                }
+
+                if (body == null) {
+                    body = createStaticBody();
+                }
+                box.setAsBox(runWidth / 2f, runHeight / 2f, center.set(x + (runWidth - 1) / 2f, y + (runHeight - 1) / 2f), 0);
+                body.createFixture(box, 1.0f);
+            }
+        }
+        box.dispose();
+    }
+
+    /** Returns whether the given row of tiles is all permanent walls that are not covered by a rectangle yet. */
+    private static boolean isUncoveredRun(OccupancyGrid occupancy, byte flag, boolean[] covered, int x, int y, int length) {
+        for (int i = x; i < x + length; i++) {
+            if (covered[y * occupancy.getWidth() + i] || !occupancy.has(i, y, flag)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Creates an empty static body at the origin, for fixtures placed in map coordinates. */
+    private Body createStaticBody() {
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.StaticBody;
+        return world.createBody(bodyDef);
+    }
+
+    @Override
+    public void destroy(Hitbox hitbox) {
+        // Box2D does not allow removing bodies or fixtures while the world is stepping (e.g. from a contact listener)
+        if (world.isLocked()) {
+            hitboxesToDestroy.add(hitbox);
+        } else if (hitbox instanceof WallHitbox) {
+            WallHitbox wall = (WallHitbox) hitbox;
+            wall.region.destroyFixture(wall.fixture);
+            if (wall.region.getFixtureList().isEmpty()) {
+                world.destroyBody(wall.region);
+                wallRegions.remove(wall.regionKey);
+            }
+        } else {
+            world.destroyBody(((Box2DHitbox) hitbox).body);
+        }
+    }
+
+    @Override
+    public void step(float timeStep) {
+        world.step(timeStep, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+        for (Hitbox hitbox : hitboxesToDestroy) {
+            destroy(hitbox);
+        }
+        hitboxesToDestroy.clear();
+    }
+
+    @Override
+    public int getHitboxCount() {
+        return world.getBodyCount();
+    }
+
+    @Override
+    public void dispose() {
+        hitboxesToDestroy.clear();
+        wallRegions.clear();
+        world.dispose();
+    }
+
+    /** Returns the Box2D world behind this backend. */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * A hitbox backed by a Box2D body with a single fixture.
+     */
+    private static class Box2DHitbox implements Hitbox {
+
+        private final Body body;
+
+        Box2DHitbox(Body body) {
+            this.body = body;
+        }
+
+        @Override
+        public float getX() {
+            return body.getPosition().x;
+        }
+
+        @Override
+        public float getY() {
+            return body.getPosition().y;
+        }
+
+        @Override
+        public void setPosition(float x, float y) {
+            body.setTransform(x, y, 0);
+        }
+
+        @Override
+        public float getLinearVelocityX() {
+            return body.getLinearVelocity().x;
+        }
+
+        @Override
+        public float getLinearVelocityY() {
+            return body.getLinearVelocity().y;
+        }
+
+        @Override
+        public void setLinearVelocity(float x, float y) {
+            body.setLinearVelocity(x, y);
+        }
+
+        @Override
+        public void setActive(boolean active) {
+            body.setActive(active);
+        }
+
+        @Override
+        public boolean isActive() {
+            return body.isActive();
+        }
+
+        @Override
+        public void setSensor(boolean sensor) {
+            for (Fixture fixture : body.getFixtureList()) {
+                fixture.setSensor(sensor);
+            }
+        }
+
+        @Override
+        public Object getOwner() {
+            return body.getUserData();
+        }
+
+        @Override
+        public void setOwner(Object owner) {
+            body.setUserData(owner);
+        }
+    }
+
+    /**
+     * A wall: one fixture of the body shared by all the walls of its region.
+     * Walls never move, so the position is fixed.
+     */
+    private static class WallHitbox implements Hitbox {
+
+        private final Body region;
+        private final int regionKey;
+        private final Fixture fixture;
+        private final float x;
+        private final float y;
+        private boolean active = true;
+
+        WallHitbox(Body region, int regionKey, Fixture fixture, float x, float y) {
+            this.region = region;
+            this.regionKey = regionKey;
+            this.fixture = fixture;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public float getX() {
+            return x;
+        }
+
+        @Override
+        public float getY() {
+            return y;
+        }
+
+        /// Walls are fixtures of their region's shared body and never move, so like the velocity this is ignored
+        @Override
+        public void setPosition(float x, float y) {
+        }
+
+        @Override
+        public float getLinearVelocityX() {
+            return 0;
+        }
+
+        @Override
+        public float getLinearVelocityY() {
+            return 0;
+        }
+
+        @Override
+        public void setLinearVelocity(float x, float y) {
+        }
+
+        /// A fixture cannot be deactivated on its own, so an inactive wall simply collides with nothing
+        @Override
+        public void setActive(boolean active) {
+            this.active = active;
+            Filter filter = fixture.getFilterData();
+            filter.maskBits = active ? (short) 0xFFFF : 0;
+            fixture.setFilterData(filter);
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public void setSensor(boolean sensor) {
+            fixture.setSensor(sensor);
+        }
+
+        @Override
+        public Object getOwner() {
+            return fixture.getUserData();
+        }
+
+        @Override
+        public void setOwner(Object owner) {
+            fixture.setUserData(owner);
+        }
+    }
+}
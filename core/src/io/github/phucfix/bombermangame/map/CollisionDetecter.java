@@ -6,24 +6,35 @@ public class CollisionDetecter implements ContactListener {
     /**
      * beginContact is automatically triggered, when box2d detects a contact between two objects,
      * then we are storing the fixtures of the objects involved in Collision,
-     * then we check whether the objects are of class enemy and player and then
-     * we want to set the isDead attribute to true if the object is a player, leading to further consequences in player class.
+     * and hand the objects they belong to over to {@link #onContact(Object, Object)}.
      */
     @Override
     public void beginContact(Contact contact) {
         Fixture fixtureA = contact.getFixtureA();
         Fixture fixtureB = contact.getFixtureB();
+        onContact(ownerOf(fixtureA), ownerOf(fixtureB));
+    }
+
+    /** Walls that share a body keep their owner on their own fixture, everything else on its body. */
+    private static Object ownerOf(Fixture fixture) {
+        return fixture.getUserData() != null ? fixture.getUserData() : fixture.getBody().getUserData();
+    }
 
-        if((fixtureA.getBody().getUserData() instanceof Player) && fixtureB.getBody().getUserData() instanceof Enemy) {
-            Player player = (Player) fixtureA.getBody().getUserData();
+    /**
+     * What happens when two objects start touching, whichever {@link PhysicsBackend} noticed it.
+     * We check whether the objects are of class enemy and player and then
+     * we want to set the isDead attribute to true if the object is a player, leading to further consequences in player class.
+     * @param a The owner of the first hitbox.
+     * @param b The owner of the second hitbox.
+     */
+    public static void onContact(Object a, Object b) {
+        if (a instanceof Player && b instanceof Enemy) {
+            Player player = (Player) a;
             player.setDead(true);
-        } else if ((fixtureB.getBody().getUserData() instanceof Player) && fixtureA.getBody().getUserData() instanceof Enemy){
-            Player player = (Player) fixtureB.getBody().getUserData();
+        } else if (b instanceof Player && a instanceof Enemy) {
+            Player player = (Player) b;
             player.setDead(true);
-        } else if ((fixtureA.getBody().getUserData() instanceof Enemy) && fixtureB.getBody().getUserData()instanceof Enemy){
-            Enemy enemy = (Enemy) fixtureA.getBody().getUserData();
         }
-
     }
 
     @Override
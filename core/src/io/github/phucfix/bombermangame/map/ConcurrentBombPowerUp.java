@@ -1,19 +1,15 @@
 package io.github.phucfix.bombermangame.map;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.badlogic.gdx.physics.box2d.PolygonShape;
-import com.badlogic.gdx.physics.box2d.World;
 import io.github.phucfix.bombermangame.texture.Drawable;
 import io.github.phucfix.bombermangame.texture.Textures;
 
-public class ConcurrentBombPowerUp extends Exit {
+public class ConcurrentBombPowerUp extends Exit implements PowerUp {
     private boolean powerTaken;
 
 
-    public ConcurrentBombPowerUp(World world, float x, float y){
-        super(world,x,y);
+    public ConcurrentBombPowerUp(PhysicsBackend physics, float x, float y){
+        super(physics,x,y);
         this.powerTaken = false;
     }
 
@@ -27,10 +23,18 @@ public TextureRegion getCurrentAppearance() {
         }
     }
 
+    /** Lets the player plant one more bomb at a time. */
+    @Override
+    public void applyTo(Player player) {
+        Bomb.incrementMaxConcurrentBombs();
+    }
+
+    @Override
     public boolean isPowerTaken() {
         return powerTaken;
     }
 
+    @Override
     public void setPowerTaken(boolean powerTaken) {
         this.powerTaken = powerTaken;
     }
@@ -0,0 +1,147 @@
+package io.github.phucfix.bombermangame.map;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * For every tile of an {@link OccupancyGrid}, the earliest tick a blast of one of the live bombs will reach it,
+ * chain reactions included, so enemies or bots can tell how safe a tile is with a single lookup.
+ * The field is kept up to date piece by piece: a new bomb only lowers the ticks of the tiles its blast covers
+ * (and of the blasts of the bombs it would set off early), and an explosion clears the tiles it has hit,
+ * then walks again only the blasts of the bombs left that reach one of those tiles.
+ * Blasts are walked through {@link BlastPattern}, like the actual explosions.
+ * Destructible walls do not stop a blast, so destroying one never changes the field.
+ */
+public class DangerField {
+
+    /** The blast tick of a tile no blast will reach. */
+    public static final long SAFE = Long.MAX_VALUE;
+
+    private final OccupancyGrid grid;
+    /// Per tile, indexed like the grid: the earliest tick a blast reaches it, or SAFE
+    private final long[] blastTicks;
+    /// The bombs whose blast tick has been lowered, and whose blast must lower the tiles it covers in turn
+    private final ArrayDeque<Bomb> lowered = new ArrayDeque<>();
+    /// The tiles cleared by the explosion going on, until restoreClearedTiles()
+    private final IntArray clearedTiles = new IntArray();
+    /// The largest radius of any bomb added, how far from a cleared tile a bomb covering it can be
+    private int maxRadius = 0;
+    /// The blast tick of the bomb being walked, and the visitor that walks it, kept so a walk allocates nothing
+    private long walkTick;
+    private final BlastPattern.Visitor lowerTile = (x, y, directionX, directionY, isEnd) -> lowerTile(x, y);
+
+    /**
+     * Create a field without any danger.
+     * @param grid The grid the bombs are on.
+     */
+    public DangerField(OccupancyGrid grid) {
+        this.grid = grid;
+        this.blastTicks = new long[grid.getWidth() * grid.getHeight()];
+        Arrays.fill(blastTicks, SAFE);
+    }
+
+    /**
+     * Adds the blast of a freshly planted bomb. The bomb goes off when its fuse has burnt down,
+     * or earlier if it lies in the blast of a bomb that goes off earlier.
+     * Must be called once the bomb is on the grid and has its fuse.
+     */
+    public void addBomb(Bomb bomb) {
+        maxRadius = Math.max(maxRadius, bomb.getRadius());
+        bomb.setBlastTick(Math.min(bomb.getFuse().getDeadline(), getBlastTick(Math.round(bomb.getX()), Math.round(bomb.getY()))));
+        lowered.add(bomb);
+        spreadLoweredBlasts();
+    }
+
+    /**
+     * Clears a tile an explosion has just hit. Once the whole chain reaction has exploded,
+     * {@link #restoreClearedTiles()} puts back the danger of the bombs that are left.
+     */
+    public void clearTile(int x, int y) {
+        if (grid.isInside(x, y)) {
+            int index = grid.indexOf(x, y);
+            if (blastTicks[index] != SAFE) {
+                blastTicks[index] = SAFE;
+                clearedTiles.add(index);
+            }
+        }
+    }
+
+    /**
+     * Puts back the blasts of the live bombs on the tiles cleared since the last call.
+     * Only the bombs whose blast reaches a cleared tile are walked again: those in its row or column, within their radius,
+     * with no indestructible wall in between. They are found on the grid.
+     * None of these bombs was reached by the explosion, otherwise it would have exploded too, so their blast ticks still hold.
+     */
+    public void restoreClearedTiles() {
+        for (int i = 0; i < clearedTiles.size; i++) {
+            int index = clearedTiles.get(i);
+            int x = index % grid.getWidth();
+            int y = index / grid.getWidth();
+            queueBombsReaching(x, y, 0, 1);
+            queueBombsReaching(x, y, 0, -1);
+            queueBombsReaching(x, y, -1, 0);
+            queueBombsReaching(x, y, 1, 0);
+        }
+        clearedTiles.clear();
+        spreadLoweredBlasts();
+    }
+
+    /// Looks from a tile along one direction for the bombs whose blast arm comes back to it
+    private void queueBombsReaching(int x, int y, int directionX, int directionY) {
+        for (int distance = 1; distance <= maxRadius; distance++) {
+            int tileX = x + directionX * distance;
+            int tileY = y + directionY * distance;
+            /// A blast arm stops in front of an indestructible wall, so no bomb behind it reaches the tile
+            if (!grid.isInside(tileX, tileY) || grid.has(tileX, tileY, OccupancyGrid.INDESTRUCTIBLE_WALL)) {
+                return;
+            }
+            Bomb bomb = grid.getBombAt(tileX, tileY);
+            if (bomb != null && bomb.getRadius() >= distance && !lowered.contains(bomb)) {
+                lowered.add(bomb);
+            }
+        }
+    }
+
+    private void spreadLoweredBlasts() {
+        while (!lowered.isEmpty()) {
+            Bomb bomb = lowered.poll();
+            walkTick = bomb.getBlastTick();
+            BlastPattern.walk(grid, Math.round(bomb.getX()), Math.round(bomb.getY()), bomb.getRadius(), lowerTile);
+        }
+    }
+
+    private void lowerTile(int x, int y) {
+        if (!grid.isInside(x, y)) {
+            return;
+        }
+        int index = grid.indexOf(x, y);
+        if (walkTick >= blastTicks[index]) {
+            return;
+        }
+        blastTicks[index] = walkTick;
+        /// A bomb in the blast goes off with it, so its own blast comes earlier too
+        Bomb bomb = grid.getBombAt(x, y);
+        if (bomb != null && walkTick < bomb.getBlastTick()) {
+            bomb.setBlastTick(walkTick);
+            lowered.add(bomb);
+        }
+    }
+
+    /** Returns the earliest tick a blast reaches the tile, or {@link #SAFE}. */
+    public long getBlastTick(int x, int y) {
+        return grid.isInside(x, y) ? blastTicks[grid.indexOf(x, y)] : SAFE;
+    }
+
+    /**
+     * Returns whether a blast reaches the tile within the given number of ticks.
+     * @param x The X position of the tile.
+     * @param y The Y position of the tile.
+     * @param now The current tick.
+     * @param ticks How far ahead to look.
+     */
+    public boolean isDangerous(int x, int y, long now, int ticks) {
+        return getBlastTick(x, y) <= now + ticks;
+    }
+}
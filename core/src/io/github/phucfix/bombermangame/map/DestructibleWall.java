@@ -1,73 +1,49 @@
 package io.github.phucfix.bombermangame.map;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.badlogic.gdx.physics.box2d.PolygonShape;
-import com.badlogic.gdx.physics.box2d.World;
 import io.github.phucfix.bombermangame.texture.Animations;
+import io.github.phucfix.bombermangame.texture.Appearance;
 import io.github.phucfix.bombermangame.texture.Drawable;
 import io.github.phucfix.bombermangame.texture.Textures;
 
 public class DestructibleWall implements Drawable {
+    /// Length of the breaking animation (7 frames of 0.07s, see Animations.DESTROY_WALL).
+    /// Kept here so the map can schedule the wall's removal without loading the animation textures.
+    public static final float DESTROY_ANIMATION_TIME = 7 * 0.07f;
+
     private final float x;
     private final float y;
     private boolean isDestroyed;
-    private float elapsedTime;
-    private final Body hitbox;
+    /// The breaking animation is measured on the map's clock, from the tick the wall was destroyed on
+    private final SimulationClock clock;
+    private long destroyedTick;
+    private final Hitbox hitbox;
 
     /**
      * Create a destructible wall at the given position.
-     * @param world
-     * @param x
-     * @param y
+     * @param physics The physics the wall's hitbox is added to.
+     * @param clock The clock of the map, which times the breaking animation.
+     * @param x The X position.
+     * @param y The Y position.
      */
-    public DestructibleWall(World world, float x, float y) {
+    public DestructibleWall(PhysicsBackend physics, SimulationClock clock, float x, float y) {
         this.x = x;
         this.y = y;
-        this.hitbox = createHitbox(world, x, y);
+        // A square with a side length of 1 tile, which may share its body with the walls around it
+        this.hitbox = physics.createWall(this, Math.round(x), Math.round(y));
+        this.clock = clock;
         this.isDestroyed = false;
-        this.elapsedTime =0;
-    }
-
-    private Body createHitbox(World world,float x, float y) {
-        // BodyDef is like a blueprint for the movement properties of the body.
-        BodyDef bodyDef = new BodyDef();
-        // Static bodies never move, but static bodies can collide with them.
-        bodyDef.type = BodyDef.BodyType.StaticBody;
-        // Set the initial position of the body.
-        bodyDef.position.set(x,y);
-        // Create the body in the world using the body definition.
-        Body body = world.createBody(bodyDef);
-        // Now we need to give the body a shape so the physics engine knows how to collide with it.
-        // We'll use a polygon shape for the chest.
-        PolygonShape box = new PolygonShape();
-        // Make the polygon a square with a side length of 1 tile.
-        box.setAsBox(0.5f, 0.5f);
-        // Attach the shape to the body as a fixture.
-        body.createFixture(box, 1.0f);
-        // We're done with the shape, so we should dispose of it to free up memory.
-        box.dispose();
-        // Set the chest as the user data of the body so we can look up the chest from the body later.
-        body.setUserData(this);
-        return body;
-    }
-
-    public void tick(float frameTime) {
-        if (isDestroyed && !Animations.DESTROY_WALL.isAnimationFinished(elapsedTime)) {
-            elapsedTime += frameTime;
-        }
     }
 
     @Override
     public TextureRegion getCurrentAppearance() {
         if (isDestroyed) {
             /// Play the destruction animation
-            TextureRegion destroyWall = Animations.DESTROY_WALL.getKeyFrame(this.elapsedTime, false);
+            float elapsedTime = getElapsedTime();
+            TextureRegion destroyWall = Animations.DESTROY_WALL.getKeyFrame(elapsedTime, false);
 
             /// Check if the animation has finished
-            if (Animations.DESTROY_WALL.isAnimationFinished(this.elapsedTime)) {
-                hitbox.setActive(false); /// /// Deactivate the wall's hitbox when it's destroyed.
+            if (Animations.DESTROY_WALL.isAnimationFinished(elapsedTime)) {
                 return null; ///return null as wall is destroyed
             }
             return destroyWall;
@@ -75,11 +51,19 @@ public TextureRegion getCurrentAppearance() {
         return Textures.DESTRUCTIBLEWALL;
     }
 
+    /**
+     * Returns how the wall looks while it breaks, see {@link Appearance}, or null while it is standing.
+     * Standing walls are part of the cached static layer.
+     */
+    public Appearance getAppearance() {
+        return isDestroyed ? Appearance.WALL_BREAKING : null;
+    }
+
     @Override
     public void destroy() {
         if (!isDestroyed) {
             isDestroyed = true;
-            elapsedTime = 0; /// Reset elapsed time to start animation from the beginning (0th frame)
+            destroyedTick = clock.getTick(); /// The animation starts from the beginning (0th frame)
         }
     }
 
@@ -92,7 +76,25 @@ public float getY() {
         return y;
     }
 
+    /** Returns the time in seconds since the wall was destroyed, or 0 while it is standing. */
+    public float getElapsedTime() {
+        return isDestroyed ? clock.secondsSince(destroyedTick) : 0;
+    }
+
     public boolean isDestroyed() {
         return isDestroyed;
     }
+
+    /**
+     * Returns whether the wall has finished breaking. The wall blocks the way until then;
+     * afterwards GameMap removes its hitbox from the physics and the wall from the map.
+     */
+    public boolean isBroken() {
+        return isDestroyed && getElapsedTime() >= DESTROY_ANIMATION_TIME;
+    }
+
+    /** The hitbox of the wall. */
+    Hitbox getHitbox() {
+        return hitbox;
+    }
 }
@@ -1,108 +1,119 @@
 package io.github.phucfix.bombermangame.map;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.math.MathUtils;
 import io.github.phucfix.bombermangame.texture.Animations;
+import io.github.phucfix.bombermangame.texture.Appearance;
 import io.github.phucfix.bombermangame.texture.Drawable;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 public class Enemy implements Drawable {
+    /// Length of the demise animation (11 frames of 0.25s, see Animations.ENEMY_DEMISE).
+    /// Kept here so ticking an enemy never has to load the animation textures.
+    public static final float DEMISE_ANIMATION_TIME = 11 * 0.25f;
+    /// Tiles per second
+    private static final float SPEED = 2.0f;
+    /// How far an enemy may be off the middle of its tile, across the way it is going, before it moves back to the middle
+    private static final float CENTERING_TOLERANCE = 0.05f;
+
     // Total time elapsed since the game startd. Using it to calc the player movement and animating it
     private float elapsedTime;
 
     private boolean isDestroyed;
 
-    // The box2d hit box, use for collision detection
-    private final Body hitbox;
-
-    public Enemy(World world, float x, float y) {
-        this.hitbox = createHitbox(world, x, y);
+    // The hit box, use for collision detection
+    private final Hitbox hitbox;
+    /// Where the enemy died. Its body is removed from the world then, so the position is kept here for the demise animation
+    private float deathX, deathY;
+    /// The position at the start of the last tick, the enemy is drawn between it and the current position
+    private float previousX, previousY;
+    /// The velocity decided by the last call to decide(), set on the hitbox by applyDecision()
+    private float nextVelocityX, nextVelocityY;
+    private boolean velocityChanged;
+
+    public Enemy(PhysicsBackend physics, float x, float y) {
+        this.hitbox = physics.createCircle(this, x, y, 0.47f);
         this.isDestroyed = false;
+        this.previousX = x;
+        this.previousY = y;
     }
 
 
     /**
-     * Create box2d body
-     * Used to move around and detect collision with the bodies
-     * @param world The Box2D world to add the body to.
-     * @param startX The initial X position.
-     * @param startY The initial Y position.
-     * @return The created body.
-
+     * Decides how the enemy moves next. This only reads the given values and writes the enemy's own fields,
+     * so the GameMap may decide for many enemies in parallel; the decision is applied by {@link #applyDecision()}.
+     * The enemy follows the flow field towards the player, and wanders about when it cannot reach the player.
+     * @param flowField The flow field leading to the player's tile.
+     * @param x The player's X position.
+     * @param y The player's Y position.
+     * @param enemyX The enemy's X position at the start of the tick.
+     * @param enemyY The enemy's Y position at the start of the tick.
+     * @param velocityX The enemy's X velocity at the start of the tick.
+     * @param velocityY The enemy's Y velocity at the start of the tick.
+     * @param frameTime The time the tick advances by.
      */
-    private Body createHitbox(World world, float startX, float startY) {
-        // Body box is like a bluee print for the movement properties of body
-        BodyDef bodyDef = new BodyDef();
-        // Dynamic bodies are affected by forces and colicsions
-        bodyDef.type = BodyDef.BodyType.DynamicBody;
-        // Set the initial position
-        bodyDef.position.set(startX, startY);
-//        bodyDef.awake = true;
-//        bodyDef.fixedRotation = true;
-//        //bodyDef.bullet = true;
-//        bodyDef.active = true;
-        //        bodyDef.angularDamping = 45.0f;
-        //        bodyDef.angularVelocity = 2.0f;
-        // Create body in the world using the body def
-        Body body = world.createBody(bodyDef);
-        // Now give the body a shape so the physics engine knows how to collide it
-        CircleShape circle = new CircleShape();
-        circle.setRadius(0.47f);
-        // Attach the shape to the body as a fixture
-        // Bodies can have multi fixtures, but we only need one
-        body.createFixture(circle, 1.0f);
-//        enemy.setSensor(false);
-        // Done with the shape so free it
-        circle.dispose();
-        // Set the player as the user data of the body so we can look up the player from the body later
-        body.setUserData(this);
-        return body;
-    }
-
-    /*
-    Move the object next frame
-     */
-    public void tick(float x, float y, float frameTime) {
+    void decide(FlowField flowField, float x, float y, float enemyX, float enemyY, float velocityX, float velocityY, float frameTime) {
         this.elapsedTime += frameTime;
-        // Make the player move in a circle with radius 2 tiles
-        // You can change this to make the player move differently, e.g. in response to user input.
-        // See Gdx.input.isKeyPressed() for keyboard input
-        ///These things are responsible for the movement of the enemy.
-
-        float randomAngle = (float) (Math.random() * 2 * Math.PI);
-        float speed = 2.0f;
-
-        float xVelocity = (float) Math.cos(randomAngle) * speed;
-        float yVelocity = (float) Math.sin(randomAngle) * speed;
-        float xspeed = 2.0F;
-        float yspeed = 2.0F;
-
-
-        if((int) x == (int) this.getX()){
-            ///We are kind of setting adirection in it
-            float direction = (x-getX())/Math.abs(x-getX());
-            this.hitbox.setLinearVelocity(0f, direction*xspeed);
-
-        } else if((int) y == (int) this.getY()){
-            float direction = (y-getY())/Math.abs(y-getY());
-            this.hitbox.setLinearVelocity(direction*yspeed, 0f);
-        } else {
+        this.previousX = enemyX;
+        this.previousY = enemyY;
+        this.velocityChanged = false;
+        /// A dead enemy has no body anymore, it only plays its demise animation
+        if (isDestroyed) {
+            return;
+        }
 
-            if (elapsedTime % 2 < frameTime) {
-                randomAngle = (float) (Math.random() * 2 * Math.PI);
-                speed = 2.0f;
+        int tileX = Math.round(enemyX);
+        int tileY = Math.round(enemyY);
+        if (flowField.hasStep(tileX, tileY)) {
+            int stepX = flowField.getStepX(tileX, tileY);
+            int stepY = flowField.getStepY(tileX, tileY);
+            /// Head for the middle of the next tile, but first get back to the middle of this one if the enemy has drifted off it
+            /// sideways, as the corridors are barely wider than the enemy
+            float offsetX = tileX - enemyX;
+            float offsetY = tileY - enemyY;
+            if (Math.abs(stepX != 0 ? offsetY : offsetX) > CENTERING_TOLERANCE) {
+                steer(offsetX, offsetY, velocityX, velocityY);
+            } else {
+                steer(tileX + stepX - enemyX, tileY + stepY - enemyY, velocityX, velocityY);
+            }
+        } else if (flowField.getDistance(tileX, tileY) == 0) {
+            /// On the player's tile: go straight for the player
+            steer(x - enemyX, y - enemyY, velocityX, velocityY);
+        } else if (elapsedTime % 2 < frameTime) {
+            /// The player cannot be reached from here, so pick a new random direction every 2 seconds.
+            /// ThreadLocalRandom, as Math.random() is shared by every thread deciding in parallel
+            float randomAngle = (float) (ThreadLocalRandom.current().nextDouble() * 2 * Math.PI);
+            steer((float) Math.cos(randomAngle), (float) Math.sin(randomAngle), velocityX, velocityY);
+        }
+    }
 
-                xVelocity = (float) Math.cos(randomAngle) * speed;
-                yVelocity = (float) Math.sin(randomAngle) * speed;
+    /** Moves at full speed in the given direction, or stops if the direction has no length. */
+    private void steer(float directionX, float directionY, float velocityX, float velocityY) {
+        float length = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+        float xVelocity = length < 0.01f ? 0 : directionX / length * SPEED;
+        float yVelocity = length < 0.01f ? 0 : directionY / length * SPEED;
+        // Apply velocity only if it differs significantly from the current velocity
+        if (Math.abs(velocityX - xVelocity) > 0.1f || Math.abs(velocityY - yVelocity) > 0.1f) {
+            setNextVelocity(xVelocity, yVelocity);
+        }
+    }
 
+    private void setNextVelocity(float velocityX, float velocityY) {
+        this.nextVelocityX = velocityX;
+        this.nextVelocityY = velocityY;
+        this.velocityChanged = true;
+    }
 
-                // Apply velocity only if it differs significantly from the current velocity
-                if (Math.abs(hitbox.getLinearVelocity().x - xVelocity) > 0.1f ||
-                        Math.abs(hitbox.getLinearVelocity().y - yVelocity) > 0.1f) {
-                    this.hitbox.setLinearVelocity(xVelocity, yVelocity);
-                }
-            }
+    /**
+     * Sets the velocity chosen by the last {@link #decide} on the hitbox, if it chose one.
+     * This touches the physics, so it must be called from the thread that ticks the map.
+     */
+    void applyDecision() {
+        if (velocityChanged && !isDestroyed) {
+            this.hitbox.setLinearVelocity(nextVelocityX, nextVelocityY);
         }
-
+        velocityChanged = false;
     }
 
     public TextureRegion getCurrentAppearance() {
@@ -118,18 +129,35 @@ public TextureRegion getCurrentAppearance() {
         return Animations.ENEMY_MOVING_RIGHT.getKeyFrame(this.elapsedTime, true);
     }
 
+    /** Returns how the enemy looks, see {@link Appearance}. */
+    public Appearance getAppearance() {
+        return isDestroyed ? Appearance.ENEMY_DEMISE : Appearance.ENEMY_MOVING;
+    }
+
     @Override
     public float getX() {
-        return hitbox.getPosition().x;
+        return isDestroyed ? deathX : hitbox.getX();
     }
 
     @Override
     public float getY() {
-        return hitbox.getPosition().y;
+        return isDestroyed ? deathY : hitbox.getY();
+    }
+
+    @Override
+    public float getRenderX(float alpha) {
+        return MathUtils.lerp(previousX, getX(), alpha);
+    }
+
+    @Override
+    public float getRenderY(float alpha) {
+        return MathUtils.lerp(previousY, getY(), alpha);
     }
 
     public void destroy() {
         if(!isDestroyed) {
+            deathX = hitbox.getX();
+            deathY = hitbox.getY();
             isDestroyed = true;
             hitbox.setActive(false); /// Deactivate the wall's hitbox when it's destroyed.
             this.elapsedTime = 0; ///resets the elapsed time such that animation starts from 0th frame
@@ -140,6 +168,11 @@ public boolean isDestroyed() {
         return isDestroyed;
     }
 
+    /** Returns whether the enemy is dead and its demise animation has finished, so it can be removed from the map. */
+    public boolean isGone() {
+        return isDestroyed && elapsedTime >= DEMISE_ANIMATION_TIME;
+    }
+
     public float getElapsedTime() {
         return elapsedTime;
     }
@@ -148,7 +181,7 @@ public void setElapsedTime(float elapsedTime) {
         this.elapsedTime = elapsedTime;
     }
 
-    public Body getHitbox() {
+    public Hitbox getHitbox() {
         return hitbox;
     }
 
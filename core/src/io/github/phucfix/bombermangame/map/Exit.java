@@ -1,7 +1,6 @@
 package io.github.phucfix.bombermangame.map;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.physics.box2d.*;
 import io.github.phucfix.bombermangame.texture.Drawable;
 import io.github.phucfix.bombermangame.texture.Textures;
 
@@ -14,47 +13,19 @@ public class Exit implements Drawable {
     private final float x;
     private final float y;
 
-    private final Body hitbox;
+    private final Hitbox hitbox;
     
     /**
      * Create a chest at the given position.
-     * @param world The Box2D world to add the chest's hitbox to.
+     * @param physics The physics to add the chest's hitbox to.
      * @param x The X position.
      * @param y The Y position.
      */
-    public Exit(World world, float x, float y) {
+    public Exit(PhysicsBackend physics, float x, float y) {
         this.x = x;
         this.y = y;
-        // Since the hitbox never moves, and we never need to change it, we don't need to store a reference to it.
-        this.hitbox = createHitbox(world);
-    }
-    
-    /**
-     * Create a Box2D body for the chest.
-     * @param world The Box2D world to add the body to.
-     */
-    private Body createHitbox(World world) {
-        // BodyDef is like a blueprint for the movement properties of the body.
-        BodyDef bodyDef = new BodyDef();
-        // Static bodies never move, but static bodies can collide with them.
-        bodyDef.type = BodyDef.BodyType.StaticBody;
-        // Set the initial position of the body.
-        bodyDef.position.set(this.x, this.y);
-        // Create the body in the world using the body definition.
-        Body body = world.createBody(bodyDef);
-        // Now we need to give the body a shape so the physics engine knows how to collide with it.
-        // We'll use a polygon shape for the chest.
-        PolygonShape box = new PolygonShape();
-        // Changed the dimensions of hitbox to prevent overlapping ( Long )
-        box.setAsBox(0.5f, 0.5f);
-        // Attach the shape to the body as a fixture.
-        body.createFixture(box, 1.0f).setSensor(true);
-        // We're done with the shape, so we should dispose of it to free up memory.
-        box.dispose();
-        // Set the chest as the user data of the body so we can look up the chest from the body later.
-        body.setUserData(this);
-
-        return body;
+        // A sensor, so the player can walk onto the exit and the power-ups
+        this.hitbox = physics.createBox(this, x, y, 0.5f, true);
     }
     
     @Override
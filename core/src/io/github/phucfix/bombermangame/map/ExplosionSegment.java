@@ -1,44 +1,90 @@
 package io.github.phucfix.bombermangame.map;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
 import io.github.phucfix.bombermangame.texture.Drawable;
 import io.github.phucfix.bombermangame.texture.Animations;
+import io.github.phucfix.bombermangame.texture.Appearance;
 
 
-public class ExplosionSegment implements Drawable {
+/**
+ * One tile of a bomb's explosion: the center, a part of an arm, or the end of an arm.
+ * Segments are pooled by the {@link GameMap}, which hands them back to the pool when the explosion is over, see {@link #DURATION}.
+ */
+public class ExplosionSegment implements Drawable, Pool.Poolable {
 
-    private final int x;
-    private final int y;
-    private float elapsedTime;
-    private final int directionX;
+    /// How long a segment is shown: 7 frames of 0.05s, the length of every explosion animation (see Animations.EXPLOSION_CENTER).
+    /// Kept here so the map can schedule the end of an explosion without loading the animation textures.
+    public static final float DURATION = 7 * 0.05f;
+
+    private int x;
+    private int y;
+    /// The animation is measured on the map's clock, from the tick the segment was set up on
+    private SimulationClock clock;
+    private long startTick;
+    private int directionX;
     /// Direction in X (1 for right, -1 for left, 0 for no movement)
-    private final int directionY;
+    private int directionY;
     /// Direction in Y (1 for up, -1 for down, 0 for no movement)
-    private final boolean isEnd;
+    private boolean isEnd;
 
     /// Whether this segment is at the end
 
-    public ExplosionSegment(int x, int y, int directionX, int directionY, boolean isEnd) {
+    /**
+     * Create an unused segment. Segments are created by the pool and set up with {@link #init}.
+     */
+    public ExplosionSegment() {
+    }
+
+    /**
+     * Set up the segment for a new explosion.
+     * A segment without a direction is the center of the explosion.
+     * @param clock The clock of the map, the animation starts at its current tick.
+     * @param x The X position of the tile.
+     * @param y The Y position of the tile.
+     * @param directionX The direction of the arm along the X axis.
+     * @param directionY The direction of the arm along the Y axis.
+     * @param isEnd Whether this is the last tile of its arm.
+     * @return this segment, for chaining
+     */
+    public ExplosionSegment init(SimulationClock clock, int x, int y, int directionX, int directionY, boolean isEnd) {
+        this.clock = clock;
+        this.startTick = clock == null ? 0 : clock.getTick();
         this.x = x;
         this.y = y;
-        this.elapsedTime = 0;
         this.directionX = directionX;
         this.directionY = directionY;
         this.isEnd = isEnd;
+        return this;
     }
 
+    /** Returns whether the explosion animation has finished. */
+    public boolean isFinished() {
+        return getElapsedTime() >= DURATION;
+    }
 
-    public void tick(float frameTime) {
-        this.elapsedTime += frameTime;
+    @Override
+    public void reset() {
+        init(null, 0, 0, 0, 0, false);
     }
 
     @Override
     public TextureRegion getCurrentAppearance() {
+        // If the animation has finished, return null (indicating the segment is gone)
+        float elapsedTime = getElapsedTime();
+        if (elapsedTime >= DURATION) {
+            return null;
+        }
+
         // Determine the appropriate animation based on the segment type
         TextureRegion explosionAnimation = null;
 
+        if (directionX == 0 && directionY == 0) {
+            // The center of the explosion, where the bomb was
+            explosionAnimation = Animations.EXPLOSION_CENTER.getKeyFrame(elapsedTime, false);
+        }
         // If this is the end of the explosion chain, use the corresponding end animation
-        if (isEnd) {
+        else if (isEnd) {
             if (directionY == 1) {
                 explosionAnimation = Animations.EXPLOSION_TOP_END.getKeyFrame(elapsedTime, false);
             } else if (directionY == -1) {
@@ -57,14 +103,34 @@ public TextureRegion getCurrentAppearance() {
                 explosionAnimation = Animations.EXPLOSION_HORIZONTAL.getKeyFrame(elapsedTime, false);
             }
         }
+        return explosionAnimation;
+    }
 
-        // If the animation has finished, return null (indicating the segment is gone)
-        if(explosionAnimation !=null && Animations.EXPLOSION_CENTER.isAnimationFinished(elapsedTime)){
+    /** Returns how the segment looks, see {@link Appearance}, or null once it has finished. */
+    public Appearance getAppearance() {
+        if (isFinished()) {
             return null;
         }
-        return explosionAnimation;
+        if (directionX == 0 && directionY == 0) {
+            return Appearance.EXPLOSION_CENTER;
+        }
+        if (isEnd) {
+            if (directionY == 1) {
+                return Appearance.EXPLOSION_TOP_END;
+            } else if (directionY == -1) {
+                return Appearance.EXPLOSION_BOTTOM_END;
+            } else if (directionX == 1) {
+                return Appearance.EXPLOSION_RIGHT_END;
+            }
+            return Appearance.EXPLOSION_LEFT_END;
+        }
+        return directionY != 0 ? Appearance.EXPLOSION_VERTICAL : Appearance.EXPLOSION_HORIZONTAL;
     }
 
+    /** Returns the time in seconds since the segment was set up. */
+    public float getElapsedTime() {
+        return clock.secondsSince(startTick);
+    }
 
     @Override
     public float getX() {
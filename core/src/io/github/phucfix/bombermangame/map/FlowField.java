@@ -0,0 +1,124 @@
+package io.github.phucfix.bombermangame.map;
+
+import java.util.Arrays;
+
+/**
+ * A breadth-first flow field over the tiles of an {@link OccupancyGrid}, leading from every walkable tile to a target tile along a shortest path.
+ * The {@link GameMap} points it at the player's tile; every enemy then only looks up the next step from its own tile,
+ * so any number of enemies find their way for the cost of one sweep over the grid.
+ * The field is only computed again when the target moves to another tile or something on the grid has changed, see {@link OccupancyGrid#getVersion()}.
+ */
+public class FlowField {
+
+    /// Tiles an enemy cannot walk through
+    private static final byte BLOCKED = OccupancyGrid.INDESTRUCTIBLE_WALL | OccupancyGrid.DESTRUCTIBLE_WALL | OccupancyGrid.BOMB;
+    /// The steps between neighbouring tiles: up, down, left, right
+    private static final int[] STEP_X = {0, 0, -1, 1};
+    private static final int[] STEP_Y = {1, -1, 0, 0};
+    /// The step of a tile that does not lead anywhere: the target itself, or a tile it cannot be reached from
+    private static final byte NO_STEP = -1;
+
+    private final OccupancyGrid grid;
+    /// Per tile, indexed like the grid: the number of steps to the target, or -1 if it cannot be reached
+    private final int[] distances;
+    /// Per tile: the step (index into STEP_X and STEP_Y) towards the target, or NO_STEP
+    private final byte[] steps;
+    /// The tiles waiting to be visited by the sweep, reused from sweep to sweep
+    private final int[] queue;
+    private int targetX = -1;
+    private int targetY = -1;
+    private long gridVersion = -1;
+
+    /**
+     * Create a flow field that does not lead anywhere yet.
+     * @param grid The grid to find paths on.
+     */
+    public FlowField(OccupancyGrid grid) {
+        this.grid = grid;
+        int tiles = grid.getWidth() * grid.getHeight();
+        this.distances = new int[tiles];
+        this.steps = new byte[tiles];
+        this.queue = new int[tiles];
+        Arrays.fill(distances, -1);
+        Arrays.fill(steps, NO_STEP);
+    }
+
+    /**
+     * Points the field at the given tile. The field is only swept again if the target or the grid has changed since the last sweep.
+     * @param x The X position of the target tile.
+     * @param y The Y position of the target tile.
+     * @return Whether the field was swept again.
+     */
+    public boolean update(int x, int y) {
+        if (x == targetX && y == targetY && grid.getVersion() == gridVersion) {
+            return false;
+        }
+        targetX = x;
+        targetY = y;
+        gridVersion = grid.getVersion();
+        sweep();
+        return true;
+    }
+
+    private void sweep() {
+        Arrays.fill(distances, -1);
+        Arrays.fill(steps, NO_STEP);
+        if (!grid.isInside(targetX, targetY)) {
+            return;
+        }
+        int width = grid.getWidth();
+        int head = 0;
+        int tail = 0;
+        int target = grid.indexOf(targetX, targetY);
+        distances[target] = 0;
+        queue[tail++] = target;
+        while (head < tail) {
+            int tile = queue[head++];
+            int x = tile % width;
+            int y = tile / width;
+            for (byte step = 0; step < STEP_X.length; step++) {
+                int neighbourX = x + STEP_X[step];
+                int neighbourY = y + STEP_Y[step];
+                if (!grid.isInside(neighbourX, neighbourY) || grid.has(neighbourX, neighbourY, BLOCKED)) {
+                    continue;
+                }
+                int neighbour = grid.indexOf(neighbourX, neighbourY);
+                if (distances[neighbour] >= 0) {
+                    continue;
+                }
+                distances[neighbour] = distances[tile] + 1;
+                /// The neighbour was reached from this tile, so its way to the target is the opposite step
+                steps[neighbour] = (byte) (step ^ 1);
+                queue[tail++] = neighbour;
+            }
+        }
+    }
+
+    /** Returns the number of steps from the tile to the target, or -1 if the target cannot be reached from it. */
+    public int getDistance(int x, int y) {
+        return grid.isInside(x, y) ? distances[grid.indexOf(x, y)] : -1;
+    }
+
+    /** Returns whether the field leads from the tile to the target, i.e. the tile is neither the target nor cut off from it. */
+    public boolean hasStep(int x, int y) {
+        return grid.isInside(x, y) && steps[grid.indexOf(x, y)] != NO_STEP;
+    }
+
+    /** Returns the X part of the next step from the tile towards the target: -1, 0 or 1. Only meaningful if {@link #hasStep} is true. */
+    public int getStepX(int x, int y) {
+        return STEP_X[steps[grid.indexOf(x, y)]];
+    }
+
+    /** Returns the Y part of the next step from the tile towards the target: -1, 0 or 1. Only meaningful if {@link #hasStep} is true. */
+    public int getStepY(int x, int y) {
+        return STEP_Y[steps[grid.indexOf(x, y)]];
+    }
+
+    public int getTargetX() {
+        return targetX;
+    }
+
+    public int getTargetY() {
+        return targetY;
+    }
+}
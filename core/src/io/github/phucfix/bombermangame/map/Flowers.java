@@ -1,40 +0,0 @@
-package io.github.phucfix.bombermangame.map;
-
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import io.github.phucfix.bombermangame.texture.Animations;
-import io.github.phucfix.bombermangame.texture.Drawable;
-import io.github.phucfix.bombermangame.texture.Textures;
-
-/**
- * Flowers are a static object without any special properties.
- * They do not have a hitbox, so the player does not collide with them.
- * They are purely decorative and serve as a nice floor decoration.
- */
-public class Flowers implements Drawable {
-    
-    private final int x;
-    private final int y;
-
-    public Flowers(int x, int y) {
-        this.x = x;
-        this.y = y;
-    }
-    
-    @Override
-    public TextureRegion getCurrentAppearance() {
-        return Textures.FLOWERS;
-    }
-    
-    @Override
-    public float getX() {
-        return x;
-    }
-    
-    @Override
-    public float getY() {
-        return y;
-    }
-
-    public void destroy() {
-    }
-}
@@ -1,13 +1,17 @@
 package io.github.phucfix.bombermangame.map;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
 import io.github.phucfix.bombermangame.BombermanGame;
 import io.github.phucfix.bombermangame.audio.MusicTrack;
+import io.github.phucfix.bombermangame.audio.SoundEffect;
 import io.github.phucfix.bombermangame.screen.GameScreen;
 
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 
 import static io.github.phucfix.bombermangame.screen.GameScreen.SCALE;
 import static io.github.phucfix.bombermangame.screen.GameScreen.TILE_SIZE_PX;
@@ -18,33 +22,42 @@
  */
 public class GameMap {
 
-    // A static block is executed once when the class is referenced for the first time.
-    static {
-        // Initialize the Box2D physics engine.
-        com.badlogic.gdx.physics.box2d.Box2D.init();
-    }
-
-    // Box2D physics simulation parameters (you can experiment with these if you want, but they work well as they are)
+    // Simulation parameters
+    /**
+     * The rate the simulation runs at, whatever the refresh rate of the monitor.
+     * Every tick advances everything on the map, the physics included, by exactly {@link #TICK_TIME}.
+     */
+    public static final int TICKS_PER_SECOND = 60;
+    /** The time in seconds that one tick advances the simulation by. */
+    public static final float TICK_TIME = 1f / TICKS_PER_SECOND;
+    /**
+     * The most ticks {@link #update(float)} runs to catch up after a slow frame.
+     * Time beyond that is dropped, so a stall slows the game down for a moment instead of making every following frame slower.
+     */
+    private static final int MAX_TICKS_PER_FRAME = 5;
     /**
-     * The time step for the physics simulation.
-     * This is the amount of time that the physics simulation advances by in each frame.
-     * It is set to 1/refreshRate, where refreshRate is the refresh rate of the monitor, e.g., 1/60 for 60 Hz.
+     * The frame time that has not been simulated yet, always less than one tick after {@link #update(float)}.
+     * We use this to keep the simulation at a constant rate even if the frame rate is variable.
      */
-    private static final float TIME_STEP = 1f / Gdx.graphics.getDisplayMode().refreshRate;
-    /** The number of velocity iterations for the physics simulation. */
-    private static final int VELOCITY_ITERATIONS = 6;
-    /** The number of position iterations for the physics simulation. */
-    private static final int POSITION_ITERATIONS = 2;
+    private float accumulator = 0;
+    /** Counts the ticks and runs the timed events: bomb fuses, breaking walls, the end of explosions. */
+    private final SimulationClock clock = new SimulationClock();
+    /** Set once the level has been won or left, after which the map is not ticked anymore. */
+    private boolean levelOver = false;
+
     /**
-     * The accumulated time since the last physics step.
-     * We use this to keep the physics simulation at a constant rate even if the frame rate is variable.
+     * The number of enemies from which their decisions are made in parallel.
+     * Deciding for one enemy takes about 7 nanoseconds, while handing the work to the common ForkJoinPool and waiting for it
+     * costs 10-20 microseconds, so below a few thousand enemies the tick is faster on one thread.
      */
-    private float physicsTime = 0;
+    static final int PARALLEL_ENEMY_THRESHOLD = 4096;
+    /// The read phase's copy of each enemy's position and velocity (x, y, vx, vy), reused from tick to tick
+    private float[] enemyStates = new float[0];
 
     /** The game, in case the map needs to access it. */
     private final BombermanGame game;
-    /** The Box2D world for physics simulation. */
-    private final World world;
+    /** The physics simulation, Box2D or the tile grid, see {@link PhysicsBackend#create()}. */
+    private final PhysicsBackend physics;
 
     public float mapWidth, mapHeight;
     private int mapMaxX, mapMaxY;
@@ -52,9 +65,21 @@ public class GameMap {
     // Game objects
     private Player player;
     private ArrayList<Enemy> enemies;
+    /// The number of enemies that are still alive, counted as they spawn and die so the HUD and the win check can read it every frame
+    private int remainingEnemies = 0;
 
-    private final Flowers[][] flowers;
+    /// The decorative ground under everything else
+    private GroundLayer ground;
+    /// The explosion segments that are still animating, finished ones go back to segmentPool
     private List<ExplosionSegment> segments = new ArrayList<>();
+    /// The scheduled ends of the explosions that are still animating, oldest first
+    private final ArrayDeque<TimerWheel.Timer> segmentExpiries = new ArrayDeque<>();
+    private final Pool<ExplosionSegment> segmentPool = new Pool<>() {
+        @Override
+        protected ExplosionSegment newObject() {
+            return new ExplosionSegment();
+        }
+    };
     ///Walls of the Selected Map
     private ArrayList<IndestructibleWall> indestructibleWalls;
     private ArrayList<DestructibleWall> destructibleWalls;
@@ -64,21 +89,73 @@ public class GameMap {
     private ArrayList<SpeedPowerUp> speedIncreasePowerUps;
 
     private final ArrayList<Bomb> bombs;
+    /// Hitboxes of exploded bombs, reused by the next bombs instead of creating new ones
+    private final ArrayList<Hitbox> spareBombHitboxes = new ArrayList<>();
+    /// Per-tile index of walls and bombs, used for O(1) blast and placement queries
+    private OccupancyGrid occupancy;
+    /// The untaken power-ups by tile, used for O(1) pickup checks
+    private PowerUpRegistry powerUps;
+    /// The tile the player was last checked for power-ups on, or -1 to check again on the next tick
+    private int pickupTile = -1;
+    /// The bombs a blast has reached and that have yet to explode in the same wave, in the order the blast reached them
+    private final ArrayDeque<Bomb> chainedBombs = new ArrayDeque<>();
+    /// The wave of explosions that last hit each tile, indexed like the occupancy grid.
+    /// A tile covered by several bombs of a chain reaction is only hit once per wave
+    private int[] blastWaves;
+    private int blastWave = 0;
+    /// The visitor that explode() walks each blast of a wave with, kept so an explosion does not allocate one
+    private final BlastPattern.Visitor addBlastSegment = this::addBlastSegment;
+    /// The earliest tick a blast of the live bombs reaches each tile, kept up to date as bombs are planted and explode
+    private DangerField dangerField;
+    /// The enemies by tile, rebuilt after every physics step, so blasts only look at the enemies on the tiles they hit
+    private SpatialHash<Enemy> enemyHash;
+    /// Leads the enemies to the player's tile, swept again when the player changes tile or the grid changes
+    private FlowField flowField;
+    /// Destructible walls destroyed since the renderer last looked, so it can rebuild only their part of the static layer.
+    /// Concurrent, as the renderer may poll it while a simulation thread ticks the map
+    private final Queue<DestructibleWall> destroyedWalls = new ConcurrentLinkedQueue<>();
+    /// Set by the renderer when the bomb key is pressed, the next tick plants the bomb
+    private final AtomicBoolean bombRequested = new AtomicBoolean();
+    /// Whether screen changes are held back for the thread that ticks the map (see SimulationThread) instead of made right away
+    private boolean deferScreenChanges = false;
+    /// The screen change the last tick asked for, while screen changes are deferred
+    private Runnable pendingScreenChange;
     // Tracks elapsed time since the bomb was planted
     // Indicates if the bomb is being monitored
-    private CollisionDetecter collisionDetecter;
 
 
     /**
-     *
-     * @param game
-     * @param coordinatesAndObjects
+     * Builds the map from the "x,y" = object entries of a .properties map file.
+     * @param game The game the map belongs to.
+     * @param coordinatesAndObjects The parsed map file.
      */
     public GameMap(BombermanGame game, HashMap<String, String> coordinatesAndObjects) {
+        this(game);
+        parseKeyValueToBuild(coordinatesAndObjects);
+        finishBuild();
+    }
+
+    /**
+     * Builds the map straight from a compiled map, see {@link BinaryMap}.
+     * @param game The game the map belongs to.
+     * @param compiledMap The compiled map, positioned at its first byte.
+     * @throws IllegalArgumentException if the data is not a valid compiled map.
+     */
+    public GameMap(BombermanGame game, ByteBuffer compiledMap) {
+        /// The header is checked before the physics world exists, so a bad file leaks no native world
+        this(game, BinaryMap.readHeader(compiledMap), compiledMap);
+    }
+
+    private GameMap(BombermanGame game, BinaryMap.Header header, ByteBuffer compiledMap) {
+        this(game);
+        loadCompiledMap(header, compiledMap);
+        finishBuild();
+    }
+
+    /** Sets up an empty map, ready to be filled by one of the loaders. */
+    private GameMap(BombermanGame game) {
         this.game = game;
-        this.world = new World(Vector2.Zero, true);
-        this.collisionDetecter = new CollisionDetecter();
-        this.world.setContactListener(collisionDetecter);
+        this.physics = PhysicsBackend.create();
 
         this.bombs = new ArrayList<>();
         this.player = getPlayer();
@@ -86,15 +163,20 @@ public GameMap(BombermanGame game, HashMap<String, String> coordinatesAndObjects
         this.mapMaxX = 0;
         this.mapMaxY =0;
 
-        //Initialized the walls, chests and Breakable walls, and flowers
+        //Initialized the walls, chests and Breakable walls
         this.indestructibleWalls = new ArrayList<>();
         this.destructibleWalls = new ArrayList<>();
         this.concurrentBombPowerUps = new ArrayList<>();
         this.bombBlastPowerUp = new ArrayList<>();
         this.speedIncreasePowerUps = new ArrayList<>();
         this.enemies = new ArrayList<>();
-        parseKeyValueToBuild(coordinatesAndObjects);
+    }
 
+    /**
+     * Completes the map once all of its objects have been loaded:
+     * adds a random exit and speed power-ups if the map has no exit, and lays out the ground.
+     */
+    private void finishBuild() {
         if(getExit() == null) {
             /// This code will be executed if there is no Exit in the map file
             if (!destructibleWalls.isEmpty()) {
@@ -103,7 +185,7 @@ public GameMap(BombermanGame game, HashMap<String, String> coordinatesAndObjects
                 DestructibleWall wallForExit = destructibleWalls.get(wallno);
                 float exitX = wallForExit.getX();
                 float exitY = wallForExit.getY();
-                this.exit = new Exit(world, exitX, exitY);
+                this.exit = new Exit(physics, exitX, exitY);
 
                 for(int i = 0; i < destructibleWalls.size(); i++){
                     Random random1 = new Random();
@@ -116,26 +198,26 @@ public GameMap(BombermanGame game, HashMap<String, String> coordinatesAndObjects
                         float speedPowerUpX = wall1.getX();
                         float speedPowerUpY = wall1.getY();
 
-                        this.speedIncreasePowerUps.add(new SpeedPowerUp(world, speedPowerUpX, speedPowerUpY));
+                        SpeedPowerUp speedPowerUp = new SpeedPowerUp(physics, speedPowerUpX, speedPowerUpY);
+                        this.speedIncreasePowerUps.add(speedPowerUp);
+                        powerUps.add(speedPowerUp);
                     }
 
                 }
             }
         }
 
-        this.flowers = new Flowers[getMapMaxX()+1][getMapMaxY()+1];
-        for (int i = 0; i < flowers.length; i++) {
-            for (int j = 0; j < flowers[i].length; j++) {
-                this.flowers[i][j] = new Flowers(i, j);
-            }
-        }
-        this.mapWidth = flowers.length * TILE_SIZE_PX * SCALE;
-        this.mapHeight = flowers[0].length * TILE_SIZE_PX * SCALE;
+        /// The indestructible walls never change, so the physics gets them all at once and can merge them
+        physics.createPermanentWalls(occupancy, OccupancyGrid.INDESTRUCTIBLE_WALL);
+
+        this.ground = new GroundLayer(getMapMaxX() + 1, getMapMaxY() + 1);
+        this.mapWidth = ground.getWidth() * TILE_SIZE_PX * SCALE;
+        this.mapHeight = ground.getHeight() * TILE_SIZE_PX * SCALE;
     }
 
     public void parseKeyValueToBuild(Map<String, String> coordinatesAndObjects) {
 
-        for (String key : game.getCoordinatesAndObjects().keySet()) {
+        for (String key : coordinatesAndObjects.keySet()) {
             String[] coordinates = key.split(",");
 
             try {
@@ -153,235 +235,456 @@ public void parseKeyValueToBuild(Map<String, String> coordinatesAndObjects) {
                 }
 
                 ///value of our object
-                String object = coordinatesAndObjects.get(key);
-
-                switch (object) {
-                    case "0" -> this.indestructibleWalls.add(new IndestructibleWall(world, x, y));
-                    case "1" -> {
-                        this.destructibleWalls.add(new DestructibleWall(world, x, y));
-                    }
-                    case "2" -> this.player = new Player(world, x, y);
-                    case "3" -> this.enemies.add(new Enemy(world, x, y));
-                    case "4" -> {
-                        this.exit = new Exit(world, x, y);
-                        this.destructibleWalls.add(new DestructibleWall(world, x, y));
-                    }
-                    case "5" -> {
-                        this.concurrentBombPowerUps.add(new ConcurrentBombPowerUp(world, x, y));
-                        this.destructibleWalls.add(new DestructibleWall(world, x, y));
-
-                    }
+                placeObject(x, y, Integer.parseInt(coordinatesAndObjects.get(key).trim()));
+            } catch (Exception e) {
+                System.err.println("Invalid coordinate format: " + key);
+            }
+        }
 
-                    case "6" -> {
-                        this.bombBlastPowerUp.add(new BombBlastPowerUp(world, x, y));
+        buildOccupancyGrid();
+    }
 
-                        this.destructibleWalls.add(new DestructibleWall(world, x, y));
-                    }
+    /**
+     * Fills the map from a compiled map, one byte per tile, without creating any Strings.
+     * @param header The header of the compiled map, already read and checked.
+     * @param compiledMap The compiled map, positioned at its first tile.
+     */
+    private void loadCompiledMap(BinaryMap.Header header, ByteBuffer compiledMap) {
+        this.mapMaxX = header.width() - 1;
+        this.mapMaxY = header.height() - 1;
+        for (int y = 0; y < header.height(); y++) {
+            for (int x = 0; x < header.width(); x++) {
+                byte object = compiledMap.get();
+                if (object != BinaryMap.EMPTY) {
+                    placeObject(x, y, object);
                 }
-            } catch (Exception e) {
-                System.err.println("Invalid coordinate format: " + key);
             }
         }
+        /// Skip the checksum, which readHeader has already verified
+        compiledMap.getInt();
 
+        buildOccupancyGrid();
     }
 
     /**
-     * Updates the game state. This is called once per frame.
-     * Every dynamic object in the game should update its state here.
-     * @param frameTime the time that has passed since the last update
+     * Creates the object with the given map file code on a tile.
+     * Unknown codes are ignored.
+     * @param x The X coordinate of the tile.
+     * @param y The Y coordinate of the tile.
+     * @param object The code of the object, as in the map files (0 = indestructible wall, 1 = destructible wall, ...).
      */
-    public void tick(float frameTime) {
+    private void placeObject(int x, int y, int object) {
+        switch (object) {
+            case 0 -> this.indestructibleWalls.add(new IndestructibleWall(x, y));
+            case 1 -> {
+                this.destructibleWalls.add(new DestructibleWall(physics, clock, x, y));
+            }
+            case 2 -> this.player = new Player(physics, x, y);
+            case 3 -> {
+                this.enemies.add(new Enemy(physics, x, y));
+                remainingEnemies++;
+            }
+            case 4 -> {
+                this.exit = new Exit(physics, x, y);
+                this.destructibleWalls.add(new DestructibleWall(physics, clock, x, y));
+            }
+            case 5 -> {
+                this.concurrentBombPowerUps.add(new ConcurrentBombPowerUp(physics, x, y));
+                this.destructibleWalls.add(new DestructibleWall(physics, clock, x, y));
 
-        if(this.player !=null) {
-            this.player.tick(frameTime);
-        }
-        if (!this.enemies.isEmpty()) {
-            for (Enemy enemy : this.getEnemies()){
-                enemy.tick(player.getX(), player.getY(), frameTime);
             }
-        }
-        if(!this.bombs.isEmpty()) {
-            getBombs()
-                    .parallelStream()
-                    .forEach(bomb -> bomb.tick(0.017f));
-        }
 
-        if(!this.segments.isEmpty()) {
-            getSegments().forEach(segment -> segment.tick(0.017f));
+            case 6 -> {
+                this.bombBlastPowerUp.add(new BombBlastPowerUp(physics, x, y));
 
+                this.destructibleWalls.add(new DestructibleWall(physics, clock, x, y));
+            }
         }
+    }
 
-        getConcurrentBombPowerUps().forEach(power -> {
-                    float player_X = Math.round(getPlayer().getX());
-                    float player_Y = Math.round(getPlayer().getY());
-                    if(power.getX() == player_X && power.getY() == player_Y && !power.isPowerTaken()){
-                        MusicTrack.POWERUP_TAKEN.play();
-                        power.setPowerTaken(true);
-                        power.destroy();
-                        Bomb.incrementMaxConcurrentBombs();
-                    }
-                }
-        );
-
-        getBombBlastPowerUp().forEach(power -> {
-                    float player_X = Math.round(getPlayer().getX());
-                    float player_Y = Math.round(getPlayer().getY());
-                    if(power.getX() == player_X && power.getY() == player_Y && !power.isPowerTaken()){
-                        MusicTrack.POWERUP_TAKEN.play();
-                        power.setPowerTaken(true);
-                        power.destroy();
-                        Bomb.incrementCurrentBombRadius();
-                    }
-                }
-        );
+    /**
+     * Indexes every wall and power-up by its tile.
+     * Called once the map bounds are known, i.e. after all the objects have been parsed.
+     */
+    private void buildOccupancyGrid() {
+        this.occupancy = new OccupancyGrid(mapMaxX + 1, mapMaxY + 1);
+        this.blastWaves = new int[occupancy.getWidth() * occupancy.getHeight()];
+        this.flowField = new FlowField(occupancy);
+        this.dangerField = new DangerField(occupancy);
+        this.enemyHash = new SpatialHash<>(occupancy);
+        enemyHash.rebuild(enemies);
+        for (IndestructibleWall wall : indestructibleWalls) {
+            occupancy.set(Math.round(wall.getX()), Math.round(wall.getY()), OccupancyGrid.INDESTRUCTIBLE_WALL);
+        }
+        for (DestructibleWall wall : destructibleWalls) {
+            occupancy.putDestructibleWall(wall);
+        }
+        this.powerUps = new PowerUpRegistry(occupancy);
+        for (ConcurrentBombPowerUp power : concurrentBombPowerUps) {
+            powerUps.add(power);
+        }
+        for (BombBlastPowerUp power : bombBlastPowerUp) {
+            powerUps.add(power);
+        }
+        for (SpeedPowerUp power : speedIncreasePowerUps) {
+            powerUps.add(power);
+        }
+    }
 
-        getSpeedIncreasePowerUps().forEach(speedpower -> {
-            float player_X = Math.round(getPlayer().getX());
-            float player_Y = Math.round(getPlayer().getY());
-            if(speedpower.getX() == player_X && speedpower.getY() == player_Y && !speedpower.isPowerTaken()){
-                MusicTrack.POWERUP_TAKEN.play();
-                speedpower.setPowerTaken(true);
-                speedpower.destroy();
-                player.setPlayerSpeed(player.getPlayerSpeed() + 0.3F);
+    /**
+     * Runs as many ticks as fit into the time since the last frame. This is called once per frame.
+     * The time left over is kept for the next frame, see {@link #getInterpolationAlpha()}.
+     * @param frameTime the time that has passed since the last update
+     */
+    public void update(float frameTime) {
+        accumulator += frameTime;
+        int ticks = 0;
+        while (accumulator >= TICK_TIME && !levelOver) {
+            if (ticks == MAX_TICKS_PER_FRAME) {
+                /// Too far behind: drop the backlog but keep the fraction of a tick, so the interpolation does not jump
+                accumulator %= TICK_TIME;
+                break;
+            }
+            tick();
+            accumulator -= TICK_TIME;
+            ticks++;
+        }
+    }
 
+    /**
+     * Advances the game state by one tick of {@link #TICK_TIME}.
+     * Every dynamic object in the game should update its state here.
+     * The tick runs in three phases:
+     * <ol>
+     *     <li>read: the positions and velocities of the player and the enemies are copied out of the physics,
+     *     and the {@link FlowField} to the player's tile is brought up to date,</li>
+     *     <li>decide: every enemy picks its next move, using only those copies and its own fields,
+     *     so this runs in parallel once there are enough of them (see {@link #PARALLEL_ENEMY_THRESHOLD}),</li>
+     *     <li>write: everything that touches the physics, the occupancy grid, the object lists or the static bomb counters,
+     *     one thing after another. This includes the timed events due on this tick (see {@link SimulationClock}).</li>
+     * </ol>
+     */
+    public void tick() {
+        clock.advance();
+
+        /// Read phase
+        float playerX = player.getX();
+        float playerY = player.getY();
+        int playerTileX = Math.round(playerX);
+        int playerTileY = Math.round(playerY);
+        readEnemyStates();
+        flowField.update(playerTileX, playerTileY);
+
+        /// Decide phase
+        decideEnemies(playerX, playerY);
+
+        /// Write phase
+        this.player.tick(TICK_TIME);
+        if (bombRequested.getAndSet(false) && !player.isDead() && Bomb.getActiveBombs() < Bomb.getMaxConcurrentBombs()) {
+            plantBomb(Math.round(playerX), Math.round(playerY));
+        }
+        if (!this.enemies.isEmpty()) {
+            for (Enemy enemy : this.enemies) {
+                enemy.applyDecision();
             }
-        });
+            /// Enemies whose demise animation has finished are gone for good
+            enemies.removeIf(Enemy::isGone);
+        }
+
+        /// Only look for power-ups when the player has entered another tile
+        int playerTile = occupancy.isInside(playerTileX, playerTileY) ? occupancy.indexOf(playerTileX, playerTileY) : -1;
+        if (playerTile != pickupTile) {
+            pickupTile = playerTile;
+            pickUpPowerUps(playerTileX, playerTileY);
+        }
 
-        float player_X1 = Math.round(getPlayer().getX());
-        float player_Y1 = Math.round(getPlayer().getY());
+        float player_X1 = Math.round(playerX);
+        float player_Y1 = Math.round(playerY);
         if(getRemainingEnemies() == 0) {
             if (game.isMultiLevelSelected()) {
                 if (getExit().getX() == player_X1 && getExit().getY() == player_Y1) {
-                    game.resetHud();
-                    MusicTrack.LEVEL_THEME.stop();
-                    MusicTrack.LEVEL_THEME2.play();
-                    game.loadDefaultMap();
+                    /// The HUD and the music are left to the render thread as well
+                    changeScreen(() -> {
+                        game.resetHud();
+                        MusicTrack.LEVEL_THEME.stop();
+                        MusicTrack.LEVEL_THEME2.play();
+                        game.loadDefaultMap();
+                    });
+                    /// This map has been disposed of, nothing more to do here
+                    return;
                 }
             } else {
                 if (getExit().getX() == player_X1 && getExit().getY() == player_Y1) {
-                    GameScreen.setGameWon(true);
-                    MusicTrack.PLAYER_MOVE1.stop();
-                    MusicTrack.PLAYER_MOVE2.stop();
-                    game.goToVictoryScreen();
+                    changeScreen(() -> {
+                        GameScreen.setGameWon(true);
+                        game.goToVictoryScreen();
+                    });
+                    return;
                 }
             }
         }
 
-        getDestructibleWalls()
-                .parallelStream()
-                .forEach(wall -> wall.tick(0.017f));
+        /// Bombs that go off, bombs that turn solid, walls that have finished breaking and explosions that are over
+        clock.runDueEvents();
 
-        /// Manual timer logic for the bomb
-        for(Bomb bomb : getBombs()){
-            if (bomb.isBombActive()) {
+        physics.step(TICK_TIME);
+        enemyHash.rebuild(enemies);
+    }
 
-                float playerX = Math.round(getPlayer().getX());
-                float playerY = Math.round(getPlayer().getY());
+    /**
+     * Timed event: turns a bomb from a sensor into a solid hitbox once the player has stepped off it.
+     * While the player still stands on it, the bomb looks again on the next tick.
+     */
+    private void solidifyWhenLeft(Bomb bomb) {
+        if (!bomb.isBombActive()) {
+            return;
+        }
+        if (Math.round(player.getX()) != Math.round(bomb.getX()) || Math.round(player.getY()) != Math.round(bomb.getY())) {
+            bomb.setSensor(false); // Disable the sensor, making the bomb a solid hitbox
+        } else {
+            clock.scheduleNextTick(() -> solidifyWhenLeft(bomb));
+        }
+    }
 
-                float bombX = Math.round(bomb.getX());
-                float bombY = Math.round(bomb.getY());
+    /**
+     * Timed event: a bomb's fuse has burnt down.
+     * Package-private so the benchmarks can set off chain reactions.
+     */
+    void detonate(Bomb bomb) {
+        SoundEffect.BOMB_EXPLOSION.trigger();
 
-                /// Check if the player has moved away from the bomb
-                if ((playerX != bombX || playerY != bombY) && bomb.getBombTimer() > 0.7f && bomb.getBombTimer() < Bomb.BOMB_EXPLOSION_TIME) {
-                    bomb.setSensor(false); // Disable the sensor, making the bomb a solid hitbox
-                }
+        removeBomb(bomb);
+        /// Creates the explosion animation for each segment of the bomb
+        ///and destroys the destroyable objects in that segment, setting off every bomb the blast reaches
+        explode(Math.round(bomb.getX()), Math.round(bomb.getY()), bomb.getRadius());
+    }
 
-                /// Putting all the nearby objects that are affected by the bomb explosion in the new Hashmap,
-                ///to trigger the destroy() method for each of them.
+    /** Takes a bomb that is about to explode off the map, whether its fuse has burnt down or a blast has reached it. */
+    private void removeBomb(Bomb bomb) {
+        clock.cancel(bomb.getFuse());
+        bomb.destroy();
+        occupancy.removeBomb(Math.round(bomb.getX()), Math.round(bomb.getY()));
+        Bomb.decrementActiveBombs();
+        /// The explosion segments take over from here, the bomb's hitbox is kept for the next bomb
+        spareBombHitboxes.add(bomb.getHitbox());
+        bombs.remove(bomb);
+    }
 
-                if (bomb.getBombTimer() >= Bomb.BOMB_EXPLOSION_TIME) {
-                    /// Defined explosion radius
-                    MusicTrack.BOMB_EXPLOSION.play();
-                    float explosionRadius = bomb.getCurrentBombRadius();
+    /** Timed event: a destroyed wall has finished breaking, so it leaves the physics and the map. */
+    private void removeBrokenWall(DestructibleWall wall) {
+        physics.destroy(wall.getHitbox());
+        destructibleWalls.remove(wall);
+    }
 
-                    /// Creates the explosion animation for each segment of the bomb
-                    ///and destroys the destroyable objects in that segment
-                    List<ExplosionSegment> newSegments = segmentsOfExplosion(bombX, bombY, explosionRadius);
-                    segments.addAll(newSegments);
+    /** Read phase: copies the position and velocity of every enemy, so the decide phase does not have to ask the physics. */
+    private void readEnemyStates() {
+        int count = enemies.size();
+        if (enemyStates.length < count * 4) {
+            enemyStates = new float[count * 8];
+        }
+        for (int i = 0; i < count; i++) {
+            Enemy enemy = enemies.get(i);
+            enemyStates[i * 4] = enemy.getX();
+            enemyStates[i * 4 + 1] = enemy.getY();
+            /// A dead enemy's hitbox has left the physics already
+            if (!enemy.isDestroyed()) {
+                enemyStates[i * 4 + 2] = enemy.getHitbox().getLinearVelocityX();
+                enemyStates[i * 4 + 3] = enemy.getHitbox().getLinearVelocityY();
+            }
+        }
+    }
 
-                    bomb.setBombActive(false);
-                    bomb.destroy();
-                    Bomb.decrementActiveBombs();
-                }
+    /** Decide phase: every enemy decides its next move from the copies made in the read phase. */
+    private void decideEnemies(float playerX, float playerY) {
+        int count = enemies.size();
+        if (count >= PARALLEL_ENEMY_THRESHOLD) {
+            IntStream.range(0, count).parallel().forEach(i -> decideEnemy(i, playerX, playerY));
+        } else {
+            for (int i = 0; i < count; i++) {
+                decideEnemy(i, playerX, playerY);
             }
         }
-        doPhysicsStep(frameTime);
     }
 
-    private List<ExplosionSegment> segmentsOfExplosion(float x, float y, float radius) {
-        List<ExplosionSegment> newSegments = new ArrayList<>();
-        newSegments.add(new ExplosionSegment(Math.round(x), Math.round(y), 0, 0, false));
-        destroySegmentObjects(x, y); // Destroy objects at the bomb's tile first
+    private void decideEnemy(int index, float playerX, float playerY) {
+        enemies.get(index).decide(flowField, playerX, playerY,
+                enemyStates[index * 4], enemyStates[index * 4 + 1],
+                enemyStates[index * 4 + 2], enemyStates[index * 4 + 3], TICK_TIME);
+    }
 
-        // Directions for up, down, left, right
-        int[][] directions = {
-                {0, 1},
-                {0, -1},
-                {-1, 0},
-                {1, 0}
+    /**
+     * Ends the level with the given screen change, e.g. going to the victory screen.
+     * The change is made right away, unless screen changes are deferred, in which case it waits for {@link #takeScreenChange()}.
+     */
+    private void changeScreen(Runnable change) {
+        levelOver = true;
+        if (deferScreenChanges) {
+            pendingScreenChange = change;
+        } else {
+            change.run();
+        }
+    }
 
-        };
+    /**
+     * Makes the map hold back the screen changes its ticks ask for, instead of making them on the ticking thread.
+     * Used when the map is ticked on a thread other than the render thread, which alone may change screens.
+     */
+    public void setDeferScreenChanges(boolean deferScreenChanges) {
+        this.deferScreenChanges = deferScreenChanges;
+    }
 
-        for (int[] dir : directions) {
-            for (int i = 1; i <= radius; i++) {
-                float segmentX = x + dir[0] * i;
-                float segmentY = y + dir[1] * i;
-                /// if there is an Indestructible wall at a segment the loop breaks
-                /// that means it will not create any bomb segment beyond the wall
-                if (isIndestructibleWallAt(segmentX, segmentY)) {
-                    break;
-                }
+    /** Returns the screen change held back since the last call and forgets it, or null if there is none. */
+    public Runnable takeScreenChange() {
+        Runnable change = pendingScreenChange;
+        pendingScreenChange = null;
+        return change;
+    }
 
-                // Create an explosion segment
-                boolean isEndSegment = (i == radius);
-                segments.add(new ExplosionSegment(
-                        Math.round(segmentX),
-                        Math.round(segmentY),
-                        dir[0], dir[1], isEndSegment
-                ));
+    /**
+     * Asks for a bomb at the player's tile. It is planted by the next tick, if the player may plant another one.
+     * Safe to call from any thread.
+     */
+    public void requestBomb() {
+        bombRequested.set(true);
+    }
 
-                destroySegmentObjects(segmentX,segmentY);
-            }
+    /**
+     * Gives the player every untaken power-up on the given tile.
+     * Package-private so the benchmarks can measure it on its own.
+     * @param tileX The X coordinate of the player's tile.
+     * @param tileY The Y coordinate of the player's tile.
+     */
+    void pickUpPowerUps(int tileX, int tileY) {
+        Array<PowerUp> taken = powerUps.take(tileX, tileY);
+        if (taken == null) {
+            return;
+        }
+        for (PowerUp power : taken) {
+            SoundEffect.POWERUP_TAKEN.trigger();
+            power.setPowerTaken(true);
+            power.destroy();
+            power.applyTo(player);
         }
+    }
 
-        newSegments.add(new ExplosionSegment(Math.round(x), Math.round(y), 0, 0, false));
-        return newSegments;
+    /**
+     * Timed event: the oldest explosion is over, so its segments go back to the pool.
+     * Every explosion lasts {@link ExplosionSegment#DURATION}, so the oldest one's segments are always the first in the list.
+     * @param count The number of segments of the explosion.
+     */
+    private void expireSegments(int count) {
+        segmentExpiries.poll();
+        List<ExplosionSegment> expired = segments.subList(0, count);
+        for (ExplosionSegment segment : expired) {
+            segmentPool.free(segment);
+        }
+        expired.clear();
     }
 
-    private boolean isIndestructibleWallAt(float x, float y) {
-        return indestructibleWalls.stream().anyMatch(w -> w.getX() == x && w.getY() == y);
+    /**
+     * Adds the explosion segments of a bomb at the given tile and destroys everything they hit.
+     * Bombs the blast reaches explode in the same tick, one after another in the order the blast reached them,
+     * and so on until the chain reaction has run its course. All these explosions make up one wave,
+     * which hits every tile at most once and ends at the same time.
+     * Package-private so the benchmarks can measure it on its own.
+     */
+    void explode(float x, float y, float radius) {
+        int firstSegment = segments.size();
+        blastWave++;
+        BlastPattern.walk(occupancy, Math.round(x), Math.round(y), (int) radius, addBlastSegment);
+        while (!chainedBombs.isEmpty()) {
+            Bomb bomb = chainedBombs.poll();
+            BlastPattern.walk(occupancy, Math.round(bomb.getX()), Math.round(bomb.getY()), bomb.getRadius(), addBlastSegment);
+        }
+        /// The hit tiles have been cleared, the bombs that are left still threaten some of them
+        dangerField.restoreClearedTiles();
+
+        int count = segments.size() - firstSegment;
+        segmentExpiries.add(clock.schedule(ExplosionSegment.DURATION, () -> expireSegments(count)));
     }
 
-    private void destroySegmentObjects(float x, float y) {
-        //Destroy all the destructible walls
-        getDestructibleWalls().parallelStream().forEach(wall -> {
-                    if (wall.getX() == x && wall.getY() == y && !wall.isDestroyed()) {
-                        wall.destroy();
-                    }
-        });
+    /** Adds the explosion segment of a tile of the current wave and hits the tile. */
+    private void addBlastSegment(int x, int y, int directionX, int directionY, boolean isEnd) {
+        segments.add(segmentPool.obtain().init(clock, x, y, directionX, directionY, isEnd));
+        hitTile(x, y);
+    }
 
-        // Destroy enemies
-        getEnemies().forEach(enemy -> {
-                    if (Math.round(enemy.getX()) == x && Math.round(enemy.getY()) == y && !enemy.isDestroyed()) {
-                        enemy.destroy();
-                    }
-        });
-        if (Math.round(getPlayer().getX()) == x && Math.round(getPlayer().getY()) == y && !getPlayer().isDead()) {
-            getPlayer().setDead(true);
+    /**
+     * Destroys what stands on a tile the current wave covers and queues the bomb on it, unless the wave has hit the tile already.
+     * The arms of a blast only stop at indestructible walls, so there is nothing else to tell the caller.
+     */
+    private void hitTile(int tileX, int tileY) {
+        if (!occupancy.isInside(tileX, tileY)) {
+            destroySegmentObjects(tileX, tileY);
+            return;
+        }
+        int index = occupancy.indexOf(tileX, tileY);
+        if (blastWaves[index] == blastWave) {
+            return;
+        }
+        blastWaves[index] = blastWave;
+        destroySegmentObjects(tileX, tileY);
+        dangerField.clearTile(tileX, tileY);
+
+        Bomb bomb = occupancy.getBombAt(tileX, tileY);
+        if (bomb != null) {
+            /// Taken off the map right away, so no other blast of the wave queues it a second time
+            removeBomb(bomb);
+            chainedBombs.add(bomb);
         }
     }
 
     /**
-     * Performs as many physics steps as necessary to catch up to the given frame time.
-     * This will update the Box2D world by the given time step.
-     * @param frameTime Time since last frame in seconds
+     * Hands every explosion segment back to the pool at once.
+     * Package-private so the benchmarks can reset the map between explosions.
      */
-    private void doPhysicsStep(float frameTime) {
-        this.physicsTime += frameTime;
-        while (this.physicsTime >= TIME_STEP) {
-            this.world.step(TIME_STEP, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
-            this.physicsTime -= TIME_STEP;
+    void clearSegments() {
+        for (TimerWheel.Timer expiry : segmentExpiries) {
+            clock.cancel(expiry);
+        }
+        segmentExpiries.clear();
+        for (ExplosionSegment segment : segments) {
+            segmentPool.free(segment);
+        }
+        segments.clear();
+    }
+
+    private void destroySegmentObjects(int tileX, int tileY) {
+        //Destroy the destructible wall on this tile, if any
+        DestructibleWall wall = occupancy.getDestructibleWallAt(tileX, tileY);
+        if (wall != null && !wall.isDestroyed()) {
+            wall.destroy();
+            occupancy.removeDestructibleWall(tileX, tileY);
+            /// The power-ups under the wall can be picked up now, even by a player who is already on the tile
+            if (powerUps.uncover(tileX, tileY)) {
+                pickupTile = -1;
+            }
+            destroyedWalls.add(wall);
+            clock.schedule(DestructibleWall.DESTROY_ANIMATION_TIME, () -> removeBrokenWall(wall));
+        }
+
+        // Destroy the enemies on this tile
+        for (int i = enemyHash.first(tileX, tileY); i >= 0; i = enemyHash.next(i)) {
+            Enemy enemy = enemyHash.get(i);
+            if (!enemy.isDestroyed()) {
+                enemy.destroy();
+                physics.destroy(enemy.getHitbox());
+                remainingEnemies--;
+            }
         }
+        if (Math.round(getPlayer().getX()) == tileX && Math.round(getPlayer().getY()) == tileY && !getPlayer().isDead()) {
+            getPlayer().setDead(true);
+        }
+    }
+
+    /**
+     * Frees the physics and everything in it, including the native memory of a Box2D world.
+     * Called when the game moves on to another map; this map cannot be used afterwards.
+     */
+    public void dispose() {
+        clock.clear();
+        spareBombHitboxes.clear();
+        physics.dispose();
     }
 
     /** Returns the player on the map. */
@@ -401,6 +704,7 @@ public ArrayList<Enemy> getEnemies() {
 
     public void setEnemies(ArrayList<Enemy> enemies) {
         this.enemies = enemies;
+        this.remainingEnemies = (int) enemies.stream().filter(e -> !e.isDestroyed()).count();
     }
 
     public ArrayList<Bomb> getBombs() {
@@ -408,15 +712,24 @@ public ArrayList<Bomb> getBombs() {
     }
 
     public void plantBomb(float x, float y) {
+        /// Only one bomb fits on a tile
+        if (occupancy.has(Math.round(x), Math.round(y), OccupancyGrid.BOMB)) {
+            return;
+        }
         if (Bomb.getActiveBombs() <= Bomb.getMaxConcurrentBombs()) {
-            MusicTrack.BOMB_PLANT.play();
+            SoundEffect.BOMB_PLANT.trigger();
             // Dispose of the previous bomb to free memory
 //            if (this.bomb != null) {
 //                this.bomb.destroy();
 //            }
             // Create a new bomb at the specified position
-            Bomb bomb =new Bomb(world,x,y);
+            Hitbox hitbox = spareBombHitboxes.isEmpty() ? Bomb.createHitbox(physics) : spareBombHitboxes.remove(spareBombHitboxes.size() - 1);
+            Bomb bomb = new Bomb(clock, hitbox, x, y, Bomb.getCurrentBombRadius());
+            bomb.setFuse(clock.schedule(Bomb.BOMB_EXPLOSION_TIME, () -> detonate(bomb)));
+            clock.schedule(Bomb.SENSOR_TIME, () -> solidifyWhenLeft(bomb));
             this.bombs.add(bomb);
+            occupancy.putBomb(bomb);
+            dangerField.addBomb(bomb);
             Bomb.incrementActiveBombs();
         }
     }
@@ -462,29 +775,37 @@ public void setExit(Exit exit) {
         this.exit = exit;
     }
 
-    /** Returns the flowers on the map. */
-    public List<Flowers> getFlowers() {
-        return Arrays.stream(flowers).flatMap(Arrays::stream).toList();
+    /** Returns the ground layer of the map. */
+    public GroundLayer getGround() {
+        return ground;
     }
 
-    public CollisionDetecter getCollisionDetecter() {
-        return collisionDetecter;
+    /**
+     * Returns how far the current frame lies between the last tick (0) and the next one (1).
+     * Moving things are drawn that far between their previous and their current position.
+     */
+    public float getInterpolationAlpha() {
+        return accumulator / TICK_TIME;
+    }
+
+    public long getTickCount() {
+        return clock.getTick();
     }
 
-    public void setCollisionDetecter(CollisionDetecter collisionDetecter) {
-        this.collisionDetecter = collisionDetecter;
+    public SimulationClock getClock() {
+        return clock;
     }
 
-    public float getPhysicsTime() {
-        return physicsTime;
+    public boolean isLevelOver() {
+        return levelOver;
     }
 
     public BombermanGame getGame() {
         return game;
     }
 
-    public World getWorld() {
-        return world;
+    public PhysicsBackend getPhysics() {
+        return physics;
     }
 
     public float getMapWidth() {
@@ -507,12 +828,47 @@ public List<ExplosionSegment> getSegments() {
         return segments;
     }
 
-    public void setSegments(List<ExplosionSegment> segments) {
-        this.segments = segments;
+    public SpatialHash<Enemy> getEnemyHash() {
+        return enemyHash;
+    }
+
+    public DangerField getDangerField() {
+        return dangerField;
     }
 
+    public PowerUpRegistry getPowerUps() {
+        return powerUps;
+    }
+
+    public FlowField getFlowField() {
+        return flowField;
+    }
+
+    public OccupancyGrid getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Returns the next destructible wall destroyed since the last call and forgets it, or null if there is none.
+     * Used by the renderer to find out which parts of its cached static layer are out of date.
+     */
+    public DestructibleWall pollDestroyedWall() {
+        return destroyedWalls.poll();
+    }
+
+    /** Returns the number of enemies that are still alive. */
     public int getRemainingEnemies(){
-        return (int)enemies.stream().filter(e -> !e.isDestroyed()).count();
+        return remainingEnemies;
+    }
+
+    /** Returns the number of bombs that have been planted and have not exploded yet. */
+    public int getActiveBombs() {
+        return bombs.size();
+    }
+
+    /** Returns the number of power-ups that have not been taken yet, hidden ones included. */
+    public int getUntakenPowerUps() {
+        return powerUps.getUntakenCount();
     }
 
     public ArrayList<SpeedPowerUp> getSpeedIncreasePowerUps() {
@@ -0,0 +1,408 @@
+package io.github.phucfix.bombermangame.map;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A physics backend in plain Java that works on the tile grid instead of running a general-purpose solver.
+ * Every solid box is indexed by the tile it sits on, so a round hitbox only has to be checked against the
+ * boxes of the 3x3 tiles around it: it moves with its velocity and is then pushed out of any solid box it overlaps,
+ * which lets it slide along walls and round corners like it does with Box2D.
+ * Round hitboxes are bucketed by tile once per step to find the ones that touch each other.
+ * Unlike Box2D, round hitboxes do not push each other around; they only report the contact.
+ * There must be at most one solid (non-sensor, active) box per tile, which is always the case on a Bomber Quest map.
+ */
+public class GridPhysics implements PhysicsBackend {
+
+    /// Times a round hitbox is pushed out of the boxes around it per step, the second pass settles corners
+    private static final int RESOLVE_ITERATIONS = 2;
+
+    /// All round hitboxes, destroyed ones are dropped at the start of the next step
+    private final ArrayList<GridHitbox> circles = new ArrayList<>();
+    private int circleCount;
+    private int boxCount;
+    private int nextId;
+
+    /// The tile grid, grown to fit whenever a box is placed outside of it
+    private int width;
+    private int height;
+    /// The solid box on each tile, or null (index = y * width + x)
+    private GridHitbox[] solidAt = new GridHitbox[0];
+    /// The first round hitbox in each tile's bucket (index into circles), or -1
+    private int[] bucketHead = new int[0];
+    /// The next round hitbox in the same bucket, per round hitbox
+    private int[] bucketNext = new int[0];
+
+    @Override
+    public Hitbox createCircle(Object owner, float x, float y, float radius) {
+        GridHitbox circle = new GridHitbox(this, nextId++, owner, x, y, radius, false, true);
+        circles.add(circle);
+        circleCount++;
+        return circle;
+    }
+
+    @Override
+    public Hitbox createBox(Object owner, float x, float y, float halfSize, boolean sensor) {
+        GridHitbox box = new GridHitbox(this, nextId++, owner, x, y, halfSize, sensor, false);
+        boxCount++;
+        index(box);
+        return box;
+    }
+
+    @Override
+    public Hitbox createWall(Object owner, int x, int y) {
+        return createBox(owner, x, y, 0.5f, false);
+    }
+
+    /**
+     * Every permanent wall gets its own box on its tile; there is nothing to gain from merging them,
+     * since a round hitbox only ever looks at the tiles around it.
+     */
+    @Override
+    public void createPermanentWalls(OccupancyGrid occupancy, byte flag) {
+        for (int y = 0; y < occupancy.getHeight(); y++) {
+            for (int x = 0; x < occupancy.getWidth(); x++) {
+                if (occupancy.has(x, y, flag)) {
+                    createBox(null, x, y, 0.5f, false);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void destroy(Hitbox hitbox) {
+        GridHitbox gridHitbox = (GridHitbox) hitbox;
+        if (gridHitbox.destroyed) {
+            return;
+        }
+        gridHitbox.destroyed = true;
+        if (gridHitbox.isCircle) {
+            circleCount--;
+        } else {
+            unindex(gridHitbox);
+            boxCount--;
+        }
+    }
+
+    @Override
+    public void step(float timeStep) {
+        circles.removeIf(circle -> circle.destroyed);
+        for (GridHitbox circle : circles) {
+            if (circle.active) {
+                circle.x += circle.velocityX * timeStep;
+                circle.y += circle.velocityY * timeStep;
+                for (int i = 0; i < RESOLVE_ITERATIONS; i++) {
+                    resolveWalls(circle);
+                }
+            }
+        }
+        detectContacts();
+    }
+
+    /**
+     * Pushes a round hitbox out of the solid boxes on the tiles around it
+     * and takes away the part of its velocity that points into them.
+     */
+    private void resolveWalls(GridHitbox circle) {
+        int centerX = Math.round(circle.x);
+        int centerY = Math.round(circle.y);
+        for (int tileY = centerY - 1; tileY <= centerY + 1; tileY++) {
+            for (int tileX = centerX - 1; tileX <= centerX + 1; tileX++) {
+                if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+                    continue;
+                }
+                GridHitbox box = solidAt[tileY * width + tileX];
+                if (box != null) {
+                    pushOut(circle, box);
+                }
+            }
+        }
+    }
+
+    private static void pushOut(GridHitbox circle, GridHitbox box) {
+        float minX = box.x - box.size;
+        float maxX = box.x + box.size;
+        float minY = box.y - box.size;
+        float maxY = box.y + box.size;
+        float radius = circle.size;
+
+        // The point of the box that is nearest to the center of the circle
+        float nearestX = Math.max(minX, Math.min(circle.x, maxX));
+        float nearestY = Math.max(minY, Math.min(circle.y, maxY));
+        float dx = circle.x - nearestX;
+        float dy = circle.y - nearestY;
+        float distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared >= radius * radius) {
+            return;
+        }
+
+        float normalX;
+        float normalY;
+        float depth;
+        if (distanceSquared > 1e-8f) {
+            float distance = (float) Math.sqrt(distanceSquared);
+            normalX = dx / distance;
+            normalY = dy / distance;
+            depth = radius - distance;
+        } else {
+            // The center is inside the box: leave through the nearest side
+            float left = circle.x - minX;
+            float right = maxX - circle.x;
+            float down = circle.y - minY;
+            float up = maxY - circle.y;
+            float nearest = Math.min(Math.min(left, right), Math.min(down, up));
+            normalX = nearest == left ? -1 : nearest == right ? 1 : 0;
+            normalY = normalX != 0 ? 0 : nearest == down ? -1 : 1;
+            depth = nearest + radius;
+        }
+        circle.x += normalX * depth;
+        circle.y += normalY * depth;
+
+        float intoBox = circle.velocityX * normalX + circle.velocityY * normalY;
+        if (intoBox < 0) {
+            circle.velocityX -= normalX * intoBox;
+            circle.velocityY -= normalY * intoBox;
+        }
+    }
+
+    /**
+     * Finds the round hitboxes that started touching during this step and reports them to the {@link CollisionDetecter}.
+     * Each hitbox is only compared with the ones in its own and the neighbouring tiles.
+     */
+    private void detectContacts() {
+        if (bucketNext.length < circles.size()) {
+            bucketNext = new int[Math.max(circles.size(), bucketNext.length * 2)];
+        }
+        for (int i = 0; i < circles.size(); i++) {
+            GridHitbox circle = circles.get(i);
+            IntArray swap = circle.touching;
+            circle.touching = circle.touchingNow;
+            circle.touchingNow = swap;
+            circle.touchingNow.clear();
+            int tile = tileOf(circle);
+            if (circle.active && tile >= 0) {
+                bucketNext[i] = bucketHead[tile];
+                bucketHead[tile] = i;
+            }
+        }
+
+        for (int i = 0; i < circles.size(); i++) {
+            GridHitbox circle = circles.get(i);
+            int tile = tileOf(circle);
+            if (!circle.active || tile < 0) {
+                continue;
+            }
+            int centerX = tile % width;
+            int centerY = tile / width;
+            for (int tileY = Math.max(centerY - 1, 0); tileY <= Math.min(centerY + 1, height - 1); tileY++) {
+                for (int tileX = Math.max(centerX - 1, 0); tileX <= Math.min(centerX + 1, width - 1); tileX++) {
+                    for (int j = bucketHead[tileY * width + tileX]; j >= 0; j = bucketNext[j]) {
+                        // Every pair is only looked at once, from its first hitbox
+                        if (j > i) {
+                            checkContact(circle, circles.get(j));
+                        }
+                    }
+                }
+            }
+        }
+
+        for (GridHitbox circle : circles) {
+            int tile = tileOf(circle);
+            if (tile >= 0) {
+                bucketHead[tile] = -1;
+            }
+        }
+    }
+
+    private static void checkContact(GridHitbox a, GridHitbox b) {
+        float dx = a.x - b.x;
+        float dy = a.y - b.y;
+        float reach = a.size + b.size;
+        if (dx * dx + dy * dy >= reach * reach) {
+            return;
+        }
+        // The pair is remembered by the hitbox with the lower id, so it is only reported when the contact begins
+        GridHitbox first = a.id < b.id ? a : b;
+        GridHitbox second = first == a ? b : a;
+        first.touchingNow.add(second.id);
+        if (!first.touching.contains(second.id)) {
+            CollisionDetecter.onContact(a.owner, b.owner);
+        }
+    }
+
+    /** Returns the index of the tile the hitbox's center is on, or -1 outside the grid. */
+    private int tileOf(GridHitbox hitbox) {
+        int tileX = Math.round(hitbox.x);
+        int tileY = Math.round(hitbox.y);
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+            return -1;
+        }
+        return tileY * width + tileX;
+    }
+
+    /** Puts a box on its tile if it is solid, growing the grid if needed. */
+    private void index(GridHitbox box) {
+        if (box.destroyed || !box.active || box.sensor) {
+            return;
+        }
+        int tileX = Math.round(box.x);
+        int tileY = Math.round(box.y);
+        if (tileX < 0 || tileY < 0) {
+            return;
+        }
+        if (tileX >= width || tileY >= height) {
+            grow(Math.max(tileX + 1, width * 2), Math.max(tileY + 1, height * 2));
+        }
+        box.tile = tileY * width + tileX;
+        solidAt[box.tile] = box;
+    }
+
+    /** Takes a box off its tile, e.g. because it became a sensor or moved. */
+    private void unindex(GridHitbox box) {
+        if (box.tile >= 0 && solidAt[box.tile] == box) {
+            solidAt[box.tile] = null;
+        }
+        box.tile = -1;
+    }
+
+    private void grow(int newWidth, int newHeight) {
+        GridHitbox[] newSolidAt = new GridHitbox[newWidth * newHeight];
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(solidAt, y * width, newSolidAt, y * newWidth, width);
+        }
+        for (GridHitbox box : newSolidAt) {
+            if (box != null) {
+                box.tile = Math.round(box.y) * newWidth + Math.round(box.x);
+            }
+        }
+        solidAt = newSolidAt;
+        bucketHead = new int[newWidth * newHeight];
+        Arrays.fill(bucketHead, -1);
+        width = newWidth;
+        height = newHeight;
+    }
+
+    @Override
+    public int getHitboxCount() {
+        return circleCount + boxCount;
+    }
+
+    @Override
+    public void dispose() {
+        circles.clear();
+        solidAt = new GridHitbox[0];
+        width = 0;
+        height = 0;
+    }
+
+    /**
+     * A hitbox of the grid backend: a circle that moves, or a square box that does not.
+     */
+    private static class GridHitbox implements Hitbox {
+
+        private final GridPhysics physics;
+        private final int id;
+        private final boolean isCircle;
+        /// The radius of a circle, or half the side length of a box
+        private final float size;
+        private Object owner;
+        private float x;
+        private float y;
+        private float velocityX;
+        private float velocityY;
+        private boolean active = true;
+        private boolean sensor;
+        private boolean destroyed;
+        /// The tile a solid box is indexed on, or -1
+        private int tile = -1;
+        /// Ids of the circles this circle touched during the previous step and during this one
+        private IntArray touching = new IntArray(false, 4);
+        private IntArray touchingNow = new IntArray(false, 4);
+
+        GridHitbox(GridPhysics physics, int id, Object owner, float x, float y, float size, boolean sensor, boolean isCircle) {
+            this.physics = physics;
+            this.id = id;
+            this.owner = owner;
+            this.x = x;
+            this.y = y;
+            this.size = size;
+            this.sensor = sensor;
+            this.isCircle = isCircle;
+        }
+
+        @Override
+        public float getX() {
+            return x;
+        }
+
+        @Override
+        public float getY() {
+            return y;
+        }
+
+        @Override
+        public void setPosition(float x, float y) {
+            if (!isCircle) {
+                physics.unindex(this);
+            }
+            this.x = x;
+            this.y = y;
+            if (!isCircle) {
+                physics.index(this);
+            }
+        }
+
+        @Override
+        public float getLinearVelocityX() {
+            return velocityX;
+        }
+
+        @Override
+        public float getLinearVelocityY() {
+            return velocityY;
+        }
+
+        @Override
+        public void setLinearVelocity(float x, float y) {
+            if (isCircle) {
+                this.velocityX = x;
+                this.velocityY = y;
+            }
+        }
+
+        @Override
+        public void setActive(boolean active) {
+            this.active = active;
+            if (!isCircle) {
+                physics.unindex(this);
+                physics.index(this);
+            }
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public void setSensor(boolean sensor) {
+            this.sensor = sensor;
+            if (!isCircle) {
+                physics.unindex(this);
+                physics.index(this);
+            }
+        }
+
+        @Override
+        public Object getOwner() {
+            return owner;
+        }
+
+        @Override
+        public void setOwner(Object owner) {
+            this.owner = owner;
+        }
+    }
+}
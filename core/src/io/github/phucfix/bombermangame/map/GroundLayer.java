@@ -0,0 +1,44 @@
+package io.github.phucfix.bombermangame.map;
+
+import java.util.Arrays;
+
+/**
+ * The ground of the map, stored as one byte per tile instead of one object per tile.
+ * The ground is purely decorative: it has no hitbox and never changes once the map is built.
+ * See {@link io.github.phucfix.bombermangame.screen.StaticLayerCache} for how it is drawn.
+ */
+public class GroundLayer {
+
+    /** Flowers, the only kind of ground so far. */
+    public static final byte FLOWERS = 0;
+
+    private final int width;
+    private final int height;
+    /** The ground tile of every map tile, row by row (index = y * width + x). */
+    private final byte[] tiles;
+
+    /**
+     * Create a ground layer covered in flowers.
+     * @param width The number of tiles along the X axis.
+     * @param height The number of tiles along the Y axis.
+     */
+    public GroundLayer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.tiles = new byte[width * height];
+        Arrays.fill(tiles, FLOWERS);
+    }
+
+    /** Returns the ground tile at the given map tile. */
+    public byte getTile(int x, int y) {
+        return tiles[y * width + x];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.phucfix.bombermangame.map;
+
+/**
+ * The physical body of an object on the map, created by a {@link PhysicsBackend}.
+ * Positions are in tiles, like everywhere else on the map, and velocities in tiles per second.
+ */
+public interface Hitbox {
+
+    float getX();
+
+    float getY();
+
+    /**
+     * Moves the hitbox straight to the given position, e.g. when a bomb body is reused for a new bomb.
+     * Hitboxes that never move, like the walls of the Box2D backend, ignore it.
+     */
+    void setPosition(float x, float y);
+
+    float getLinearVelocityX();
+
+    float getLinearVelocityY();
+
+    /** Sets the velocity the hitbox moves with during the next physics steps. Only moving hitboxes move. */
+    void setLinearVelocity(float x, float y);
+
+    /** Inactive hitboxes neither move nor collide with anything, but keep their place for when they are activated again. */
+    void setActive(boolean active);
+
+    boolean isActive();
+
+    /** Sensors report contacts but do not block anything, e.g. a bomb the player is still standing on. */
+    void setSensor(boolean sensor);
+
+    /** Returns the object this hitbox belongs to, e.g. the Player, or null. */
+    Object getOwner();
+
+    void setOwner(Object owner);
+}
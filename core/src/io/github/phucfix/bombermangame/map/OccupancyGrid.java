@@ -0,0 +1,128 @@
+package io.github.phucfix.bombermangame.map;
+
+/**
+ * A dense per-tile index of what currently occupies each tile of the {@link GameMap}.
+ * Blast and placement queries look up a single tile in O(1)
+ * instead of scanning every object list of the map.
+ * Tiles outside the map are treated as empty.
+ */
+public class OccupancyGrid {
+
+    /** The tile holds an indestructible wall. */
+    public static final byte INDESTRUCTIBLE_WALL = 1;
+    /** The tile holds a destructible wall that has not been destroyed yet. */
+    public static final byte DESTRUCTIBLE_WALL = 1 << 1;
+    /** The tile holds a live bomb. */
+    public static final byte BOMB = 1 << 2;
+
+    private final int width;
+    private final int height;
+    /** One byte of flags per tile, indexed by {@link #indexOf(int, int)}. */
+    private final byte[] flags;
+    /** The destructible wall standing on each tile, or null. */
+    private final DestructibleWall[] destructibleWalls;
+    /** The live bomb on each tile, or null. */
+    private final Bomb[] bombs;
+    /** Counts the changes to the flags, so derived data like a {@link FlowField} can tell whether it is out of date. */
+    private long version = 0;
+
+    /**
+     * Create an empty grid.
+     * @param width The number of tiles along the X axis.
+     * @param height The number of tiles along the Y axis.
+     */
+    public OccupancyGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.flags = new byte[width * height];
+        this.destructibleWalls = new DestructibleWall[width * height];
+        this.bombs = new Bomb[width * height];
+    }
+
+    public boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /** Returns the position of the tile in the flat arrays (row-major, y * width + x). */
+    public int indexOf(int x, int y) {
+        return y * width + x;
+    }
+
+    /** Returns whether the tile has the given flag set. Always false outside the map. */
+    public boolean has(int x, int y, byte flag) {
+        return isInside(x, y) && (flags[indexOf(x, y)] & flag) != 0;
+    }
+
+    public void set(int x, int y, byte flag) {
+        if (isInside(x, y)) {
+            flags[indexOf(x, y)] |= flag;
+            version++;
+        }
+    }
+
+    public void clear(int x, int y, byte flag) {
+        if (isInside(x, y)) {
+            flags[indexOf(x, y)] &= (byte) ~flag;
+            version++;
+        }
+    }
+
+    /** Registers a destructible wall on its tile and marks the tile as blocked. */
+    public void putDestructibleWall(DestructibleWall wall) {
+        int x = Math.round(wall.getX());
+        int y = Math.round(wall.getY());
+        if (isInside(x, y)) {
+            destructibleWalls[indexOf(x, y)] = wall;
+            set(x, y, DESTRUCTIBLE_WALL);
+        }
+    }
+
+    /** Removes the destructible wall from its tile, e.g. once a blast has destroyed it. */
+    public void removeDestructibleWall(int x, int y) {
+        if (isInside(x, y)) {
+            destructibleWalls[indexOf(x, y)] = null;
+            clear(x, y, DESTRUCTIBLE_WALL);
+        }
+    }
+
+    /** Returns the destructible wall on the tile, or null if there is none. */
+    public DestructibleWall getDestructibleWallAt(int x, int y) {
+        return isInside(x, y) ? destructibleWalls[indexOf(x, y)] : null;
+    }
+
+    /** Registers a freshly planted bomb on its tile. */
+    public void putBomb(Bomb bomb) {
+        int x = Math.round(bomb.getX());
+        int y = Math.round(bomb.getY());
+        if (isInside(x, y)) {
+            bombs[indexOf(x, y)] = bomb;
+            set(x, y, BOMB);
+        }
+    }
+
+    /** Removes the bomb from its tile once it has exploded. */
+    public void removeBomb(int x, int y) {
+        if (isInside(x, y)) {
+            bombs[indexOf(x, y)] = null;
+            clear(x, y, BOMB);
+        }
+    }
+
+    /** Returns the live bomb on the tile, or null if there is none. */
+    public Bomb getBombAt(int x, int y) {
+        return isInside(x, y) ? bombs[indexOf(x, y)] : null;
+    }
+
+    /** Returns a number that changes whenever a flag of any tile is set or cleared. */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
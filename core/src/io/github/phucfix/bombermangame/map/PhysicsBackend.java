@@ -0,0 +1,75 @@
+package io.github.phucfix.bombermangame.map;
+
+/**
+ * Moves the hitboxes of a {@link GameMap} and detects when they touch.
+ * The map only talks to its physics through this interface, so the engine behind it can be swapped:
+ * {@link Box2DPhysics} runs the full Box2D solver, {@link GridPhysics} resolves collisions against the tile grid in plain Java.
+ * The backend is picked with the system property {@value #PROPERTY} ("box2d", the default, or "grid").
+ * Whenever two hitboxes start touching, the backend calls {@link CollisionDetecter#onContact(Object, Object)} with their owners.
+ */
+public interface PhysicsBackend {
+
+    /** The system property that selects the backend. */
+    String PROPERTY = "bomberquest.physics";
+
+    /**
+     * Creates a round hitbox that moves with its velocity and is pushed back by solid boxes, e.g. for the player.
+     * @param owner The object the hitbox belongs to.
+     * @param x The X position of the center.
+     * @param y The Y position of the center.
+     * @param radius The radius in tiles.
+     */
+    Hitbox createCircle(Object owner, float x, float y, float radius);
+
+    /**
+     * Creates a square hitbox that never moves on its own, e.g. for a wall.
+     * @param owner The object the hitbox belongs to.
+     * @param x The X position of the center.
+     * @param y The Y position of the center.
+     * @param halfSize Half the side length in tiles.
+     * @param sensor Whether the box only detects contacts instead of blocking.
+     */
+    Hitbox createBox(Object owner, float x, float y, float halfSize, boolean sensor);
+
+    /**
+     * Creates a solid one-tile wall that never moves and is only ever destroyed, e.g. a destructible wall.
+     * Backends may share one body between several walls, as long as each wall can still be destroyed on its own.
+     * @param owner The object the hitbox belongs to.
+     * @param x The X position of the tile.
+     * @param y The Y position of the tile.
+     */
+    Hitbox createWall(Object owner, int x, int y);
+
+    /**
+     * Adds the walls that stay until the map is disposed of: a solid one-tile wall on every tile of the grid that has the flag.
+     * They get no hitbox of their own, so backends are free to merge neighbouring walls into bigger shapes.
+     * @param occupancy The tiles of the map.
+     * @param flag The flag that marks a permanent wall, e.g. {@link OccupancyGrid#INDESTRUCTIBLE_WALL}.
+     */
+    void createPermanentWalls(OccupancyGrid occupancy, byte flag);
+
+    /**
+     * Removes a hitbox for good. It must not be used afterwards.
+     * Safe to call at any time; backends that cannot remove hitboxes during a step do so right after it.
+     */
+    void destroy(Hitbox hitbox);
+
+    /** Advances the simulation by the given time in seconds. */
+    void step(float timeStep);
+
+    /** Returns the number of separate bodies the backend keeps track of, active or not; merged walls count once. */
+    int getHitboxCount();
+
+    /** Frees everything the backend holds. It cannot be used afterwards. */
+    void dispose();
+
+    /**
+     * Creates the backend selected by the {@value #PROPERTY} system property.
+     */
+    static PhysicsBackend create() {
+        if ("grid".equalsIgnoreCase(System.getProperty(PROPERTY))) {
+            return new GridPhysics();
+        }
+        return new Box2DPhysics();
+    }
+}
@@ -4,12 +4,12 @@
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.physics.box2d.*;
-
+import com.badlogic.gdx.math.MathUtils;
 import io.github.phucfix.bombermangame.texture.Animations;
+import io.github.phucfix.bombermangame.texture.Appearance;
 import io.github.phucfix.bombermangame.texture.Drawable;
 import io.github.phucfix.bombermangame.texture.SpriteSheet;
-import io.github.phucfix.bombermangame.audio.MusicTrack;
+import io.github.phucfix.bombermangame.audio.SoundEffect;
 import io.github.phucfix.bombermangame.screen.GameScreen;
 
 /**
@@ -17,12 +17,16 @@
  * The player has a hitbox, so it can collide with other objects in the game.
  */
 public class Player implements Drawable {
+
+    /// Length of the demise animation (8 frames of 0.3s, see Animations.CHARACTER_DEMISE).
+    /// Kept here so ticking the player never has to load the animation textures.
+    public static final float DEMISE_ANIMATION_TIME = 8 * 0.3f;
     
     /** Total time elapsed since the game started. We use this for calculating the player movement and animating it. */
     private float elapsedTime;
     
-    /** The Box2D hitbox of the player, used for position and collision detection. */
-    private final Body hitbox;
+    /** The hitbox of the player, used for position and collision detection. */
+    private final Hitbox hitbox;
 
     private boolean isDead = false;
 
@@ -31,46 +35,30 @@ public class Player implements Drawable {
     private TextureRegion facing;
 
     private float playerSpeed;
-    
-    public Player(World world, float x, float y) {
-        this.hitbox = createHitbox(world, x, y);
-        this.facing = SpriteSheet.ORIGINAL_OBJECTS.at(2,2);
-        this.playerSpeed = 3.2f;
-    }
 
+    /// The position at the start of the last tick, the player is drawn between it and the current position
+    private float previousX, previousY;
+
+    /// How the player looks according to the last tick: the walk it is doing, or null when standing, and the way it faces
+    private Appearance walking;
+    private Appearance facingAppearance = Appearance.PLAYER_FACING_RIGHT;
+    
     /**
-     * Creates a Box2D body for the player.
-     * This is what the physics engine uses to move the player around and detect collisions with other bodies.
-     * @param world The Box2D world to add the body to.
-     * @param startX The initial X position.
-     * @param startY The initial Y position.
-     * @return The created body.
+     * Create the player at the given position.
+     * @param physics The physics the player's hitbox is added to.
+     * @param x The X position.
+     * @param y The Y position.
      */
-    private Body createHitbox(World world, float startX, float startY) {
-        // BodyDef is like a blueprint for the movement properties of the body.
-        BodyDef bodyDef = new BodyDef();
-        // Dynamic bodies are affected by forces and collisions.
-        bodyDef.type = BodyDef.BodyType.DynamicBody;
-        // Set the initial position of the body.
-        bodyDef.position.set(startX, startY);
-        // Create the body in the world using the body definition.
-        Body body = world.createBody(bodyDef);
-        // Now we need to give the body a shape so the physics engine knows how to collide with it.
-        // We'll use a circle shape for the player.
-        CircleShape circle = new CircleShape();
-        // Give the circle a radius of 0.3 tiles (the player is 0.6 tiles wide).
-        circle.setRadius(0.49f);
-        // Attach the shape to the body as a fixture.
-        // Bodies can have multiple fixtures, but we only need one for the player.
-        body.createFixture(circle, 1.0f);
-
-        // We're done with the shape, so we should dispose of it to free up memory.
-        circle.dispose();
-        // Set the player as the user data of the body so we can look up the player from the body later.
-        body.setUserData(this);
-        return body;
+    public Player(PhysicsBackend physics, float x, float y) {
+        // The player is round, so it slides around corners instead of getting stuck on them
+        this.hitbox = physics.createCircle(this, x, y, 0.49f);
+        /// The initial facing is looked up on the first render, so a player can be simulated without loading textures
+        this.facing = null;
+        this.playerSpeed = 3.2f;
+        this.previousX = x;
+        this.previousY = y;
     }
-    
+
     /**
      * Move the player around in a circle by updating the linear velocity of its hitbox every frame.
      * This doesn't actually move the player, but it tells the physics engine how the player should move next frame.
@@ -78,19 +66,36 @@ private Body createHitbox(World world, float startX, float startY) {
      */
     public void tick(float frameTime) {
         this.elapsedTime += frameTime;
+        this.previousX = getX();
+        this.previousY = getY();
         float xVelocity = 0;
         float yVelocity = 0;
+        walking = null;
         // You can change this to make the player move differently, e.g. in response to user input.
         // See Gdx.input.isKeyPressed() for keyboard input
         if (!isDead) {
             if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
                 xVelocity = -playerSpeed;
+                walking = Appearance.PLAYER_WALK_LEFT;
+                facingAppearance = Appearance.PLAYER_FACING_LEFT;
             } else if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
                 xVelocity = playerSpeed;
+                walking = Appearance.PLAYER_WALK_RIGHT;
+                facingAppearance = Appearance.PLAYER_FACING_RIGHT;
             } else if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
                 yVelocity = -playerSpeed;
+                walking = Appearance.PLAYER_WALK_DOWN;
+                facingAppearance = Appearance.PLAYER_FACING_UP;
             } else if (Gdx.input.isKeyPressed(Input.Keys.UP)) {
                 yVelocity = playerSpeed;
+                walking = Appearance.PLAYER_WALK_UP;
+                facingAppearance = Appearance.PLAYER_FACING_UP;
+            }
+        } else {
+            /// A dead player stops colliding, and is gone once its demise has played
+            this.hitbox.setActive(false);
+            if (elapsedTime >= DEMISE_ANIMATION_TIME) {
+                isDeathAnimationFinished = true;
             }
         }
         this.hitbox.setLinearVelocity(xVelocity, yVelocity);
@@ -100,32 +105,23 @@ public void tick(float frameTime) {
     public TextureRegion getCurrentAppearance() {
         if (!isDead && !GameScreen.isGameWon()) {
             if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
-                MusicTrack.PLAYER_MOVE2.stop();
-                MusicTrack.PLAYER_MOVE1.play();
                 facing = SpriteSheet.ORIGINAL_OBJECTS.at(1,2);
                 return Animations.CHARACTER_WALK_LEFT.getKeyFrame(this.elapsedTime, true);
             } else if (Gdx.input.isKeyPressed(Input.Keys.UP)) {
-                MusicTrack.PLAYER_MOVE1.stop();
-                MusicTrack.PLAYER_MOVE2.play();
                 facing = SpriteSheet.ORIGINAL_OBJECTS.at(2,5);
                 return Animations.CHARACTER_WALK_UP.getKeyFrame(this.elapsedTime, true);
             } else if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
-                MusicTrack.PLAYER_MOVE1.stop();
-                MusicTrack.PLAYER_MOVE2.play();
                 facing = SpriteSheet.ORIGINAL_OBJECTS.at(2,5);
                 return Animations.CHARACTER_WALK_DOWN.getKeyFrame(this.elapsedTime, true);
             } else if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
-                MusicTrack.PLAYER_MOVE2.stop();
-                MusicTrack.PLAYER_MOVE1.play();
                 facing = SpriteSheet.ORIGINAL_OBJECTS.at(2,2);
                 return Animations.CHARACTER_WALK_RIGHT.getKeyFrame(this.elapsedTime, true);
             }
-            MusicTrack.PLAYER_MOVE1.stop();
-            MusicTrack.PLAYER_MOVE2.stop();
-
+            if (facing == null) {
+                facing = SpriteSheet.ORIGINAL_OBJECTS.at(2,2);
+            }
             return facing;
         } else {
-            this.hitbox.setActive(false);
             TextureRegion playerDemise = Animations.CHARACTER_DEMISE.getKeyFrame(this.elapsedTime, false);
             if (Animations.CHARACTER_DEMISE.isAnimationFinished(this.elapsedTime)) {
                 isDeathAnimationFinished = true;
@@ -138,13 +134,31 @@ public TextureRegion getCurrentAppearance() {
     @Override
     public float getX() {
         // The x-coordinate of the player is the x-coordinate of the hitbox (this can change every frame).
-        return hitbox.getPosition().x;
+        return hitbox.getX();
     }
     
     @Override
     public float getY() {
         // The y-coordinate of the player is the y-coordinate of the hitbox (this can change every frame).
-        return hitbox.getPosition().y;
+        return hitbox.getY();
+    }
+
+    @Override
+    public float getRenderX(float alpha) {
+        return MathUtils.lerp(previousX, getX(), alpha);
+    }
+
+    @Override
+    public float getRenderY(float alpha) {
+        return MathUtils.lerp(previousY, getY(), alpha);
+    }
+
+    /** Returns how the player looks according to the last tick, see {@link Appearance}. */
+    public Appearance getAppearance() {
+        if (isDead) {
+            return Appearance.PLAYER_DEMISE;
+        }
+        return walking != null ? walking : facingAppearance;
     }
 
     public void destroy() {
@@ -158,7 +172,7 @@ public void setElapsedTime(float elapsedTime) {
         this.elapsedTime = elapsedTime;
     }
 
-    public Body getHitbox() {
+    public Hitbox getHitbox() {
         return hitbox;
     }
 
@@ -168,10 +182,9 @@ public boolean isDead() {
 
     public void setDead(boolean dead) {
         this.elapsedTime = 0; ///resets the elapsed time such that animation starts from 0th frame
-        MusicTrack.PLAYER_MOVE1.stop();
-        MusicTrack.PLAYER_MOVE2.stop();
+        /// The footsteps stop on their own, as the screen sees the player is not walking anymore
         if(dead) {
-            MusicTrack.PLAYER_DEMISE.play();
+            SoundEffect.PLAYER_DEMISE.trigger();
         }
         else {
             this.hitbox.setActive(true);
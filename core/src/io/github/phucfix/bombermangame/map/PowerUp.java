@@ -0,0 +1,20 @@
+package io.github.phucfix.bombermangame.map;
+
+import io.github.phucfix.bombermangame.texture.Drawable;
+
+/**
+ * A power-up lying on a tile of the map, waiting for the player to pick it up.
+ * The {@link GameMap} finds the power-ups on the player's tile through its {@link PowerUpRegistry}.
+ */
+public interface PowerUp extends Drawable {
+
+    /** Gives the power-up's effect to the player, e.g. a bigger blast radius or more speed. */
+    void applyTo(Player player);
+
+    boolean isPowerTaken();
+
+    void setPowerTaken(boolean powerTaken);
+
+    /** Takes the power-up's hitbox out of the physics once it has been picked up. */
+    void destroy();
+}
@@ -0,0 +1,103 @@
+package io.github.phucfix.bombermangame.map;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * The power-ups of a map that have not been taken yet, keyed by their tile in an {@link OccupancyGrid}.
+ * Power-ups hidden under a destructible wall are kept apart until a blast {@link #uncover uncovers} them,
+ * so the player can only pick up the ones that lie in the open, with a single lookup of the player's tile.
+ */
+public class PowerUpRegistry {
+
+    private final OccupancyGrid grid;
+    /// The power-ups the player can pick up, by tile index
+    private final IntMap<Array<PowerUp>> uncovered = new IntMap<>();
+    /// The power-ups still hidden under a destructible wall, by tile index
+    private final IntMap<Array<PowerUp>> covered = new IntMap<>();
+    private int uncoveredCount = 0;
+    private int coveredCount = 0;
+
+    /**
+     * Create an empty registry.
+     * @param grid The grid whose tiles the power-ups lie on; it tells which of them are under a wall.
+     */
+    public PowerUpRegistry(OccupancyGrid grid) {
+        this.grid = grid;
+    }
+
+    /** Registers a power-up on its tile, hidden if the tile holds a destructible wall. Power-ups outside the map are ignored. */
+    public void add(PowerUp powerUp) {
+        int x = Math.round(powerUp.getX());
+        int y = Math.round(powerUp.getY());
+        if (!grid.isInside(x, y)) {
+            return;
+        }
+        if (grid.has(x, y, OccupancyGrid.DESTRUCTIBLE_WALL)) {
+            add(covered, grid.indexOf(x, y), powerUp);
+            coveredCount++;
+        } else {
+            add(uncovered, grid.indexOf(x, y), powerUp);
+            uncoveredCount++;
+        }
+    }
+
+    private static void add(IntMap<Array<PowerUp>> powerUps, int tile, PowerUp powerUp) {
+        Array<PowerUp> onTile = powerUps.get(tile);
+        if (onTile == null) {
+            onTile = new Array<>(false, 2);
+            powerUps.put(tile, onTile);
+        }
+        onTile.add(powerUp);
+    }
+
+    /**
+     * Makes the power-ups hidden on the tile available for picking up, e.g. once the wall above them has been destroyed.
+     * @return Whether there were any.
+     */
+    public boolean uncover(int x, int y) {
+        if (!grid.isInside(x, y)) {
+            return false;
+        }
+        Array<PowerUp> hidden = covered.remove(grid.indexOf(x, y));
+        if (hidden == null) {
+            return false;
+        }
+        for (PowerUp powerUp : hidden) {
+            add(uncovered, grid.indexOf(x, y), powerUp);
+        }
+        uncoveredCount += hidden.size;
+        coveredCount -= hidden.size;
+        return true;
+    }
+
+    /**
+     * Takes the power-ups the player can pick up on the tile out of the registry.
+     * @return The power-ups, or null if there are none.
+     */
+    public Array<PowerUp> take(int x, int y) {
+        if (!grid.isInside(x, y)) {
+            return null;
+        }
+        Array<PowerUp> taken = uncovered.remove(grid.indexOf(x, y));
+        if (taken != null) {
+            uncoveredCount -= taken.size;
+        }
+        return taken;
+    }
+
+    /** Returns whether the player could pick up a power-up on the tile. */
+    public boolean hasPowerUpAt(int x, int y) {
+        return grid.isInside(x, y) && uncovered.containsKey(grid.indexOf(x, y));
+    }
+
+    /** Returns the number of power-ups lying in the open. */
+    public int getUncoveredCount() {
+        return uncoveredCount;
+    }
+
+    /** Returns the number of power-ups that have not been taken yet, hidden or not. */
+    public int getUntakenCount() {
+        return uncoveredCount + coveredCount;
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.phucfix.bombermangame.map;
+
+import com.badlogic.gdx.math.MathUtils;
+import io.github.phucfix.bombermangame.texture.Appearance;
+
+import java.util.Arrays;
+
+/**
+ * An immutable picture of a {@link GameMap} at the end of one tick: everything the renderer and the HUD need,
+ * copied out of the map so it can be drawn while the next tick is already being simulated on another thread.
+ * Sprites are stored in drawing order, from lowest to highest, the player last.
+ */
+public final class RenderSnapshot {
+
+    private final int size;
+    private final Appearance[] appearances;
+    private final float[] stateTimes;
+    private final float[] x;
+    private final float[] y;
+    /// Where each sprite was at the previous tick, for interpolation
+    private final float[] previousX;
+    private final float[] previousY;
+
+    private final int playerIndex;
+    private final boolean playerGone;
+
+    private final int bombRadius;
+    private final int maxConcurrentBombs;
+    private final int remainingEnemies;
+    private final float playerSpeed;
+
+    private final long tick;
+    /// When the snapshot was taken, in System.nanoTime()
+    private final long takenAt;
+
+    private RenderSnapshot(Builder builder, GameMap map) {
+        this.size = builder.size;
+        this.appearances = Arrays.copyOf(builder.appearances, size);
+        this.stateTimes = Arrays.copyOf(builder.stateTimes, size);
+        this.x = Arrays.copyOf(builder.x, size);
+        this.y = Arrays.copyOf(builder.y, size);
+        this.previousX = Arrays.copyOf(builder.previousX, size);
+        this.previousY = Arrays.copyOf(builder.previousY, size);
+        this.playerIndex = size - 1;
+        this.playerGone = map.getPlayer().isDeathAnimationFinished();
+        this.bombRadius = Bomb.getCurrentBombRadius();
+        this.maxConcurrentBombs = Bomb.getMaxConcurrentBombs();
+        this.remainingEnemies = map.getRemainingEnemies();
+        this.playerSpeed = map.getPlayer().getPlayerSpeed();
+        this.tick = map.getTickCount();
+        this.takenAt = System.nanoTime();
+    }
+
+    /**
+     * Copies the current state of the map. This must be called on the thread that ticks the map.
+     * Things that would not be drawn (taken power-ups, power-ups under a standing wall, standing walls) are left out.
+     * @param map The map, between two ticks.
+     * @return The snapshot.
+     */
+    public static RenderSnapshot capture(GameMap map) {
+        Builder builder = new Builder();
+        OccupancyGrid occupancy = map.getOccupancy();
+
+        for (ExplosionSegment segment : map.getSegments()) {
+            builder.add(segment.getAppearance(), segment.getElapsedTime(), segment.getX(), segment.getY());
+        }
+        for (ConcurrentBombPowerUp powerUp : map.getConcurrentBombPowerUps()) {
+            if (!powerUp.isPowerTaken() && !isUnderWall(occupancy, powerUp.getX(), powerUp.getY())) {
+                builder.add(Appearance.CONCURRENT_BOMB_POWERUP, 0, powerUp.getX(), powerUp.getY());
+            }
+        }
+        for (BombBlastPowerUp powerUp : map.getBombBlastPowerUp()) {
+            if (!powerUp.isPowerTaken() && !isUnderWall(occupancy, powerUp.getX(), powerUp.getY())) {
+                builder.add(Appearance.BOMB_BLAST_POWERUP, 0, powerUp.getX(), powerUp.getY());
+            }
+        }
+        for (Bomb bomb : map.getBombs()) {
+            builder.add(bomb.getAppearance(), bomb.getBombTimer(), bomb.getX(), bomb.getY());
+        }
+        for (DestructibleWall wall : map.getDestructibleWalls()) {
+            builder.add(wall.getAppearance(), wall.getElapsedTime(), wall.getX(), wall.getY());
+        }
+        for (SpeedPowerUp powerUp : map.getSpeedIncreasePowerUps()) {
+            if (!powerUp.isPowerTaken()) {
+                builder.add(Appearance.SPEED_POWERUP, 0, powerUp.getX(), powerUp.getY());
+            }
+        }
+        builder.add(Appearance.EXIT, 0, map.getExit().getX(), map.getExit().getY());
+        for (Enemy enemy : map.getEnemies()) {
+            builder.add(enemy.getAppearance(), enemy.getElapsedTime(), enemy.getX(), enemy.getY(),
+                    enemy.getRenderX(0), enemy.getRenderY(0));
+        }
+        Player player = map.getPlayer();
+        builder.add(player.getAppearance(), player.getElapsedTime(), player.getX(), player.getY(),
+                player.getRenderX(0), player.getRenderY(0));
+        return new RenderSnapshot(builder, map);
+    }
+
+    private static boolean isUnderWall(OccupancyGrid occupancy, float x, float y) {
+        return occupancy.has(Math.round(x), Math.round(y), OccupancyGrid.DESTRUCTIBLE_WALL);
+    }
+
+    /** Returns the number of sprites in the snapshot. */
+    public int size() {
+        return size;
+    }
+
+    public Appearance getAppearance(int index) {
+        return appearances[index];
+    }
+
+    /** Returns how long the sprite has looked like it does, for animations. */
+    public float getStateTime(int index) {
+        return stateTimes[index];
+    }
+
+    /**
+     * Returns the X coordinate to draw the sprite at.
+     * @param alpha How far the frame lies between the previous tick (0) and this one (1), see {@link #getAlpha(long)}.
+     */
+    public float getRenderX(int index, float alpha) {
+        return MathUtils.lerp(previousX[index], x[index], alpha);
+    }
+
+    /** Returns the Y coordinate to draw the sprite at, see {@link #getRenderX(int, float)}. */
+    public float getRenderY(int index, float alpha) {
+        return MathUtils.lerp(previousY[index], y[index], alpha);
+    }
+
+    public float getPlayerRenderX(float alpha) {
+        return getRenderX(playerIndex, alpha);
+    }
+
+    public float getPlayerRenderY(float alpha) {
+        return getRenderY(playerIndex, alpha);
+    }
+
+    /**
+     * Returns how far the given time lies between the previous tick and this one, assuming ticks come every {@link GameMap#TICK_TIME}.
+     * @param now The current System.nanoTime().
+     * @return A value between 0 and 1.
+     */
+    public float getAlpha(long now) {
+        return MathUtils.clamp((now - takenAt) / (GameMap.TICK_TIME * 1e9f), 0f, 1f);
+    }
+
+    /** Returns whether the player has died and its demise animation has finished. */
+    public boolean isPlayerGone() {
+        return playerGone;
+    }
+
+    public int getBombRadius() {
+        return bombRadius;
+    }
+
+    public int getMaxConcurrentBombs() {
+        return maxConcurrentBombs;
+    }
+
+    public int getRemainingEnemies() {
+        return remainingEnemies;
+    }
+
+    public float getPlayerSpeed() {
+        return playerSpeed;
+    }
+
+    /** Returns the number of the tick the snapshot was taken after. */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Collects the sprites of a snapshot. The arrays grow as needed and are copied into the snapshot at the end.
+     */
+    private static class Builder {
+
+        private int size;
+        private Appearance[] appearances = new Appearance[64];
+        private float[] stateTimes = new float[64];
+        private float[] x = new float[64];
+        private float[] y = new float[64];
+        private float[] previousX = new float[64];
+        private float[] previousY = new float[64];
+
+        /** Adds a sprite that does not move. Sprites without an appearance are left out. */
+        void add(Appearance appearance, float stateTime, float x, float y) {
+            add(appearance, stateTime, x, y, x, y);
+        }
+
+        void add(Appearance appearance, float stateTime, float x, float y, float previousX, float previousY) {
+            if (appearance == null) {
+                return;
+            }
+            if (size == appearances.length) {
+                int capacity = size * 2;
+                appearances = Arrays.copyOf(appearances, capacity);
+                stateTimes = Arrays.copyOf(stateTimes, capacity);
+                this.x = Arrays.copyOf(this.x, capacity);
+                this.y = Arrays.copyOf(this.y, capacity);
+                this.previousX = Arrays.copyOf(this.previousX, capacity);
+                this.previousY = Arrays.copyOf(this.previousY, capacity);
+            }
+            appearances[size] = appearance;
+            stateTimes[size] = stateTime;
+            this.x[size] = x;
+            this.y[size] = y;
+            this.previousX[size] = previousX;
+            this.previousY[size] = previousY;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.phucfix.bombermangame.map;
+
+/**
+ * The time of a {@link GameMap}, counted in whole ticks of {@link GameMap#TICK_TIME}, and the events scheduled on it.
+ * Timed things (bomb fuses, breaking walls, explosions) remember the tick they started on and ask the clock how long ago that was,
+ * instead of being ticked themselves; whatever must happen when their time is up is scheduled with {@link #schedule(float, Runnable)}.
+ * This way a tick only costs as much as the events that are due on it.
+ */
+public class SimulationClock {
+
+    /// 256 ticks is a little over 4 seconds, longer than any bomb fuse, so events rarely wait for another turn of the wheel
+    private static final int WHEEL_SLOTS = 256;
+
+    private final TimerWheel wheel = new TimerWheel(WHEEL_SLOTS);
+    private long tick = 0;
+
+    /** Moves the clock on to the next tick. The events due on it are run by {@link #runDueEvents()}. */
+    public void advance() {
+        tick++;
+    }
+
+    /** Runs the events due on the current tick. */
+    public void runDueEvents() {
+        wheel.runDue(tick);
+    }
+
+    /**
+     * Schedules an event.
+     * @param delay The time from now in seconds, rounded to whole ticks, at least one.
+     * @param event What to do.
+     * @return The timer, to cancel the event with.
+     */
+    public TimerWheel.Timer schedule(float delay, Runnable event) {
+        return wheel.schedule(tick + ticks(delay), event);
+    }
+
+    /** Schedules an event for the next tick. */
+    public TimerWheel.Timer scheduleNextTick(Runnable event) {
+        return wheel.schedule(tick + 1, event);
+    }
+
+    public void cancel(TimerWheel.Timer timer) {
+        wheel.cancel(timer);
+    }
+
+    /** Returns the number of ticks closest to the given time, at least one. */
+    public static int ticks(float seconds) {
+        return Math.max(1, Math.round(seconds * GameMap.TICKS_PER_SECOND));
+    }
+
+    /** Returns the current tick. */
+    public long getTick() {
+        return tick;
+    }
+
+    /** Returns the time in seconds since the given tick. */
+    public float secondsSince(long startTick) {
+        return (tick - startTick) * GameMap.TICK_TIME;
+    }
+
+    /** Returns the number of events waiting. */
+    public int getPendingEvents() {
+        return wheel.size();
+    }
+
+    /** Forgets every waiting event, e.g. when the map is disposed of. */
+    public void clear() {
+        wheel.clear();
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.phucfix.bombermangame.map;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ticks a {@link GameMap} on its own thread, {@link GameMap#TICKS_PER_SECOND} times a second,
+ * so a heavy tick (e.g. a big explosion) does not hold up the frame being drawn.
+ * After every tick it publishes a {@link RenderSnapshot}; the render thread draws the latest one and never touches the map itself,
+ * except for the thread-safe {@link GameMap#requestBomb()} and {@link GameMap#pollDestroyedWall()}.
+ * Screen changes asked for by the map are handed to the render thread with {@link com.badlogic.gdx.Application#postRunnable(Runnable)},
+ * after which the thread stops.
+ * The mode is turned on with the system property {@value #PROPERTY}.
+ */
+public class SimulationThread implements Runnable {
+
+    /** The system property that turns the simulation thread on, e.g. -Dbomberquest.simThread=true. */
+    public static final String PROPERTY = "bomberquest.simThread";
+
+    private static final long TICK_NANOS = 1_000_000_000L / GameMap.TICKS_PER_SECOND;
+    /// When the thread falls further behind than this many ticks, it drops the backlog instead of catching up
+    private static final int MAX_TICKS_BEHIND = 5;
+
+    private final GameMap map;
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile RenderSnapshot latestSnapshot;
+
+    /**
+     * Prepares a simulation thread for the given map. The map must not be ticked anywhere else while the thread runs.
+     * @param map The map to simulate.
+     */
+    public SimulationThread(GameMap map) {
+        this.map = map;
+        this.thread = new Thread(this, "simulation");
+        this.thread.setDaemon(true);
+        map.setDeferScreenChanges(true);
+        this.latestSnapshot = RenderSnapshot.capture(map);
+    }
+
+    /** Returns whether the simulation thread was turned on with the {@value #PROPERTY} system property. */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    /** Starts ticking the map, unless the thread has been started before. */
+    public void start() {
+        if (thread.getState() == Thread.State.NEW) {
+            running = true;
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops ticking the map and waits for the current tick to finish, so the map can be used or disposed of afterwards.
+     * Called on the render thread.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        map.setDeferScreenChanges(false);
+    }
+
+    /** Returns the snapshot published after the latest tick. */
+    public RenderSnapshot getLatestSnapshot() {
+        return latestSnapshot;
+    }
+
+    @Override
+    public void run() {
+        try {
+            long nextTick = System.nanoTime() + TICK_NANOS;
+            while (running) {
+                long now = System.nanoTime();
+                if (now < nextTick) {
+                    LockSupport.parkNanos(nextTick - now);
+                    continue;
+                }
+                if (now - nextTick > MAX_TICKS_BEHIND * TICK_NANOS) {
+                    nextTick = now;
+                }
+
+                map.tick();
+                nextTick += TICK_NANOS;
+
+                Runnable screenChange = map.takeScreenChange();
+                if (screenChange != null) {
+                    /// The level is over; the render thread takes it from here, and the map is not touched anymore
+                    running = false;
+                    Gdx.app.postRunnable(screenChange);
+                    return;
+                }
+                latestSnapshot = RenderSnapshot.capture(map);
+            }
+        } catch (Throwable t) {
+            running = false;
+            Gdx.app.postRunnable(() -> {
+                throw new GdxRuntimeException("The simulation thread failed", t);
+            });
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.phucfix.bombermangame.map;
+
+import io.github.phucfix.bombermangame.texture.Drawable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A uniform spatial hash of moving objects, with one cell per tile of an {@link OccupancyGrid}.
+ * The {@link GameMap} rebuilds it once per physics step, so blast and proximity queries only look at the objects in the tiles they ask about,
+ * and read no positions from the physics.
+ * Each cell is a singly linked list threaded through arrays, so rebuilding it allocates nothing once it has grown to the number of objects.
+ * Usage: {@code for (int i = hash.first(x, y); i >= 0; i = hash.next(i)) { hash.get(i) ... }}
+ * @param <T> The type of the objects.
+ */
+public class SpatialHash<T extends Drawable> {
+
+    private static final int NONE = -1;
+
+    private final OccupancyGrid grid;
+    /// Per tile, indexed like the grid: the first object in the tile, or NONE
+    private final int[] heads;
+    /// Per object: the next object in the same tile, or NONE
+    private int[] nextInCell = new int[0];
+    /// Per object: its tile, so the next rebuild only has to empty these cells
+    private int[] cells = new int[0];
+    private Object[] objects = new Object[0];
+    private int size = 0;
+
+    /**
+     * Create an empty hash.
+     * @param grid The grid whose tiles are the cells.
+     */
+    public SpatialHash(OccupancyGrid grid) {
+        this.grid = grid;
+        this.heads = new int[grid.getWidth() * grid.getHeight()];
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * Puts every object into the cell of the tile it is on, forgetting where they were before.
+     * Objects outside the map are left out.
+     * @param all The objects.
+     */
+    public void rebuild(List<? extends T> all) {
+        for (int i = 0; i < size; i++) {
+            heads[cells[i]] = NONE;
+            objects[i] = null;
+        }
+        size = 0;
+        if (objects.length < all.size()) {
+            int capacity = Math.max(16, all.size() * 2);
+            objects = new Object[capacity];
+            nextInCell = new int[capacity];
+            cells = new int[capacity];
+        }
+        for (T object : all) {
+            int x = Math.round(object.getX());
+            int y = Math.round(object.getY());
+            if (!grid.isInside(x, y)) {
+                continue;
+            }
+            int cell = grid.indexOf(x, y);
+            objects[size] = object;
+            cells[size] = cell;
+            nextInCell[size] = heads[cell];
+            heads[cell] = size;
+            size++;
+        }
+    }
+
+    /** Returns the index of the first object in the tile, or -1 if there is none. */
+    public int first(int x, int y) {
+        return grid.isInside(x, y) ? heads[grid.indexOf(x, y)] : NONE;
+    }
+
+    /** Returns the index of the next object in the same tile as the given one, or -1 if there is none. */
+    public int next(int index) {
+        return nextInCell[index];
+    }
+
+    /** Returns the object with the given index, as returned by {@link #first} or {@link #next}. */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) objects[index];
+    }
+
+    /** Returns the number of objects in the tile. */
+    public int countAt(int x, int y) {
+        int count = 0;
+        for (int i = first(x, y); i != NONE; i = next(i)) {
+            count++;
+        }
+        return count;
+    }
+
+    /** Returns the number of objects in the hash. */
+    public int size() {
+        return size;
+    }
+}
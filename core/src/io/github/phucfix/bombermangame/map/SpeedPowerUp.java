@@ -1,7 +1,6 @@
 package io.github.phucfix.bombermangame.map;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.physics.box2d.World;
 
 import io.github.phucfix.bombermangame.texture.Textures;
 
@@ -10,8 +9,8 @@ public class SpeedPowerUp extends ConcurrentBombPowerUp{
     private boolean isPowerUpTaken;
 
 
-    public SpeedPowerUp(World world, float x, float y) {
-        super(world, x, y);
+    public SpeedPowerUp(PhysicsBackend physics, float x, float y) {
+        super(physics, x, y);
         this.isPowerUpTaken = false;
 
     }
@@ -26,10 +25,18 @@ public TextureRegion getCurrentAppearance() {
         }
     }
 
+    /** Makes the player walk faster. */
+    @Override
+    public void applyTo(Player player) {
+        player.setPlayerSpeed(player.getPlayerSpeed() + 0.3F);
+    }
+
+    @Override
     public boolean isPowerTaken() {
         return isPowerUpTaken;
     }
 
+    @Override
     public void setPowerTaken(boolean powerTaken) {
         this.isPowerUpTaken= powerTaken;
     }
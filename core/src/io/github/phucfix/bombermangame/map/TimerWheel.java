@@ -0,0 +1,138 @@
+package io.github.phucfix.bombermangame.map;
+
+/**
+ * A hashed timer wheel: actions scheduled for a tick wait in the slot of that tick, modulo the number of slots,
+ * so scheduling, cancelling and checking a tick for due actions cost the same however many actions are waiting.
+ * Actions further away than one turn of the wheel stay in their slot until the turn they are due.
+ * Actions due on the same tick run in the order they were scheduled.
+ * Not thread-safe; the wheel belongs to the thread that ticks the map.
+ */
+public class TimerWheel {
+
+    /** An action waiting in the wheel, which can be {@link #cancel(Timer) cancelled} until it has run. */
+    public static final class Timer {
+
+        private final long deadline;
+        private final Runnable action;
+        private Timer previous;
+        private Timer next;
+        private boolean pending = true;
+
+        private Timer(long deadline, Runnable action) {
+            this.deadline = deadline;
+            this.action = action;
+        }
+
+        /** Returns the tick the action runs on. */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /** Returns whether the action has neither run nor been cancelled yet. */
+        public boolean isPending() {
+            return pending;
+        }
+    }
+
+    /// The first and last timer of each slot, as a doubly linked list so a timer can be taken out in O(1)
+    private final Timer[] heads;
+    private final Timer[] tails;
+    private final int mask;
+    private int size;
+
+    /**
+     * Create an empty wheel.
+     * @param slots The number of slots, a power of two. Actions due within this many ticks never wait for another turn.
+     */
+    public TimerWheel(int slots) {
+        if (slots <= 0 || Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("The number of slots must be a power of two: " + slots);
+        }
+        this.heads = new Timer[slots];
+        this.tails = new Timer[slots];
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Schedules an action.
+     * @param deadline The tick to run the action on.
+     * @param action The action.
+     * @return The timer, to cancel the action with.
+     */
+    public Timer schedule(long deadline, Runnable action) {
+        Timer timer = new Timer(deadline, action);
+        int slot = (int) (deadline & mask);
+        if (tails[slot] == null) {
+            heads[slot] = timer;
+        } else {
+            tails[slot].next = timer;
+            timer.previous = tails[slot];
+        }
+        tails[slot] = timer;
+        size++;
+        return timer;
+    }
+
+    /** Cancels an action, unless it has already run or been cancelled. */
+    public void cancel(Timer timer) {
+        if (timer.pending) {
+            unlink(timer);
+        }
+    }
+
+    /**
+     * Runs every action due on the given tick. Actions may schedule or cancel other actions while they run;
+     * actions they schedule for this very tick run too.
+     * @param tick The current tick.
+     */
+    public void runDue(long tick) {
+        int slot = (int) (tick & mask);
+        Timer timer = heads[slot];
+        while (timer != null) {
+            if (timer.deadline <= tick) {
+                unlink(timer);
+                timer.action.run();
+                /// The action may have cancelled or added timers in this slot, so the walk starts over;
+                /// the timers before this one were all for later turns of the wheel
+                timer = heads[slot];
+            } else {
+                timer = timer.next;
+            }
+        }
+    }
+
+    /** Returns the number of actions waiting. */
+    public int size() {
+        return size;
+    }
+
+    /** Forgets every waiting action without running it. */
+    public void clear() {
+        for (int slot = 0; slot <= mask; slot++) {
+            for (Timer timer = heads[slot]; timer != null; timer = timer.next) {
+                timer.pending = false;
+            }
+            heads[slot] = null;
+            tails[slot] = null;
+        }
+        size = 0;
+    }
+
+    private void unlink(Timer timer) {
+        int slot = (int) (timer.deadline & mask);
+        if (timer.previous == null) {
+            heads[slot] = timer.next;
+        } else {
+            timer.previous.next = timer.next;
+        }
+        if (timer.next == null) {
+            tails[slot] = timer.previous;
+        } else {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.pending = false;
+        size--;
+    }
+}
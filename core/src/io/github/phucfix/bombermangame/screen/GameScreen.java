@@ -13,8 +13,9 @@
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import io.github.phucfix.bombermangame.BombermanGame;
-import io.github.phucfix.bombermangame.audio.MusicTrack;
+import io.github.phucfix.bombermangame.audio.SoundEffect;
 import io.github.phucfix.bombermangame.map.*;
+import io.github.phucfix.bombermangame.texture.Appearance;
 import io.github.phucfix.bombermangame.texture.Drawable;
 
 /**
@@ -47,6 +48,16 @@ public class GameScreen implements Screen {
     private final GameMap map;
     private final Hud hud;
     private final OrthographicCamera mapCamera;
+    /// The ground and walls, baked once per screen instead of being sent to the SpriteBatch every frame
+    private final StaticLayerCache staticLayer;
+    /// The range of tiles the camera can currently see, with a margin of one tile for sprites taller or wider than a tile
+    private int visibleMinX, visibleMinY, visibleMaxX, visibleMaxY;
+    /// How far this frame lies between the last two ticks of the map, moving things are drawn in between
+    private float alpha;
+    /// Ticks the map on its own thread when turned on (see SimulationThread.PROPERTY), otherwise null and the map is ticked here
+    private final SimulationThread simulation;
+    /// The footstep sound that is looping, or null while the player stands still
+    private SoundEffect footsteps;
     private CollisionDetecter collisionDetecter;
 
     private final Stage stage;
@@ -64,6 +75,8 @@ public GameScreen(BombermanGame game) {
         this.spriteBatch = game.getSpriteBatch();
         this.map = game.getMap();
         this.hud = game.getHud();
+        this.staticLayer = new StaticLayerCache(map);
+        this.simulation = SimulationThread.isEnabled() ? new SimulationThread(map) : null;
         // Create and configure the camera for the game view
         this.mapCamera = new OrthographicCamera();
         this.mapCamera.setToOrtho(false);
@@ -87,44 +100,115 @@ public void render(float deltaTime) {
             game.goToMenu();
             ///We need to dispose the bloody screen properly. In order to load a new map properly.
         } else if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-            MusicTrack.GAME_PAUSE.play();
+            SoundEffect.GAME_PAUSE.trigger();
             game.goToPauseScreen();
         } else if (Gdx.input.isKeyJustPressed(Input.Keys.T)) {
-            MusicTrack.GAME_PAUSE.play();
+            SoundEffect.GAME_PAUSE.trigger();
             game.goToTutorial();
         }
+        if (game.getScreen() != this) {
+            return;
+        }
         
         // Clear the previous frame from the screen, or else the picture smears
         ScreenUtils.clear(Color.BLACK);
 
-        // Cap frame time to 250ms to prevent spiral of death
-        float frameTime = Math.min(deltaTime, 0.250f);
-        
-        // Update the map state
-        map.tick(frameTime);
+        if (simulation != null) {
+            renderSnapshot(simulation.getLatestSnapshot(), deltaTime);
+            return;
+        }
+
+        // Update the map state, in fixed ticks; the map caps how many it runs to catch up after a slow frame
+        map.update(deltaTime);
+        alpha = map.getInterpolationAlpha();
+
+        /// The map can end the level (e.g. by reaching the exit), in which case another screen has already taken over
+        /// and this one has been disposed of
+        if (game.getScreen() != this) {
+            return;
+        }
         
         // Update the camera
-        updateCamera();
+        updateCamera(map.getPlayer().getRenderX(alpha), map.getPlayer().getRenderY(alpha));
         
         // Render the map on the screen
         renderMap();
+        updateFootsteps(map.getPlayer().getAppearance());
 
         // Render the HUD on the screen
-        hud.render(frameTime);
+        hud.render(deltaTime);
     }
     
+    /**
+     * Renders the latest snapshot of a map that is simulated on another thread.
+     * Nothing here reads the map, apart from the thread-safe bomb request and destroyed-wall queue.
+     * @param snapshot The snapshot published after the latest tick.
+     * @param deltaTime The time in seconds since the last render.
+     */
+    private void renderSnapshot(RenderSnapshot snapshot, float deltaTime) {
+        alpha = snapshot.getAlpha(System.nanoTime());
+        updateCamera(snapshot.getPlayerRenderX(alpha), snapshot.getPlayerRenderY(alpha));
+
+        staticLayer.render(mapCamera.combined, visibleMinX, visibleMinY, visibleMaxX, visibleMaxY);
+        spriteBatch.setProjectionMatrix(mapCamera.combined);
+        spriteBatch.begin();
+        /// The snapshot is already in drawing order, without anything that would not be drawn
+        for (int i = 0; i < snapshot.size(); i++) {
+            float x = snapshot.getRenderX(i, alpha);
+            float y = snapshot.getRenderY(i, alpha);
+            if (x >= visibleMinX && x <= visibleMaxX && y >= visibleMinY && y <= visibleMaxY) {
+                draw(spriteBatch, snapshot.getAppearance(i).at(snapshot.getStateTime(i)), x, y);
+            }
+        }
+        spriteBatch.end();
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.X)) {
+            map.requestBomb();
+        }
+        updateFootsteps(snapshot.getAppearance(snapshot.size() - 1));
+
+        if (snapshot.isPlayerGone()) {
+            game.goToLostScreen();
+            return;
+        }
+        hud.render(deltaTime, snapshot);
+    }
+
+    /**
+     * Loops the footstep sound that goes with the way the player is walking, if any.
+     * The sounds are only started and stopped when the player starts, stops or turns, not on every frame.
+     */
+    private void updateFootsteps(Appearance playerAppearance) {
+        SoundEffect steps = null;
+        if (playerAppearance == Appearance.PLAYER_WALK_LEFT || playerAppearance == Appearance.PLAYER_WALK_RIGHT) {
+            steps = SoundEffect.PLAYER_MOVE1;
+        } else if (playerAppearance == Appearance.PLAYER_WALK_UP || playerAppearance == Appearance.PLAYER_WALK_DOWN) {
+            steps = SoundEffect.PLAYER_MOVE2;
+        }
+        if (steps != footsteps && footsteps != null) {
+            footsteps.stopLoop();
+        }
+        footsteps = steps;
+        if (steps != null) {
+            /// Does nothing while the loop runs; restarts it if a more important effect has taken its voice
+            steps.loop();
+        }
+    }
+
     /**
      * Updates the camera to match the current state of the game.
-     * Currently, this just centers the camera at the origin.
+     * The camera follows the player, but stops at the edges of the map.
+     * @param playerX The X coordinate the player is drawn at.
+     * @param playerY The Y coordinate the player is drawn at.
      */
-    private void updateCamera() {
+    private void updateCamera(float playerX, float playerY) {
         mapCamera.setToOrtho(false);
         //mapCamera.position.x = MathUtils.clamp(map.getPlayer().getX(), 10.2f,19.5f) * TILE_SIZE_PX * SCALE;
         //mapCamera.position.y = MathUtils.clamp(map.getPlayer().getY(), 6.5f,11.5f)* TILE_SIZE_PX * SCALE;
 
         /// Clamp is used to make it Responsive)
         if (map.getMapWidth() > viewWidth) {
-            mapCamera.position.x = MathUtils.clamp(map.getPlayer().getX() * TILE_SIZE_PX * SCALE,
+            mapCamera.position.x = MathUtils.clamp(playerX * TILE_SIZE_PX * SCALE,
                     (float) viewWidth / (2),
                     map.mapWidth - (float) viewWidth / 2);
         } else {
@@ -134,7 +218,7 @@ private void updateCamera() {
         /// Vertical centering
         if (map.getMapHeight() > viewHeight) {
             mapCamera.position.y = MathUtils.clamp(
-                    map.getPlayer().getY() * TILE_SIZE_PX * SCALE,
+                    playerY * TILE_SIZE_PX * SCALE,
                     (float) viewHeight / 2,
                     map.mapHeight - (float) viewHeight / 2
             );
@@ -144,9 +228,26 @@ private void updateCamera() {
 
 
         mapCamera.update(); // Apply the change
+        updateVisibleTiles();
+    }
+
+    /**
+     * Works out which tiles are inside the camera's view, so renderMap() can skip everything else.
+     */
+    private void updateVisibleTiles() {
+        float tileSize = TILE_SIZE_PX * SCALE;
+        float halfWidth = mapCamera.viewportWidth * mapCamera.zoom / 2;
+        float halfHeight = mapCamera.viewportHeight * mapCamera.zoom / 2;
+        visibleMinX = MathUtils.floor((mapCamera.position.x - halfWidth) / tileSize) - 1;
+        visibleMinY = MathUtils.floor((mapCamera.position.y - halfHeight) / tileSize) - 1;
+        visibleMaxX = MathUtils.ceil((mapCamera.position.x + halfWidth) / tileSize) + 1;
+        visibleMaxY = MathUtils.ceil((mapCamera.position.y + halfHeight) / tileSize) + 1;
     }
 
     private void renderMap() {
+        // The ground, the indestructible walls and the standing destructible walls come from the cache, below everything else
+        staticLayer.render(mapCamera.combined, visibleMinX, visibleMinY, visibleMaxX, visibleMaxY);
+
         // This configures the spriteBatch to use the camera's perspective when rendering
         spriteBatch.setProjectionMatrix(mapCamera.combined);
 
@@ -155,74 +256,64 @@ private void renderMap() {
 
         // Render everything in the map here, in order from lowest to highest (later things appear on top)
         // You may want to add a method to GameMap to return all the drawables in the correct order
-        for(Flowers flowers : map.getFlowers()){
-            if(flowers != null){
-                draw(spriteBatch, flowers);
-            }
-        }
+        OccupancyGrid occupancy = map.getOccupancy();
 
         for(ExplosionSegment segment : map.getSegments()){
-            draw(spriteBatch,segment);
+            drawIfVisible(spriteBatch, segment);
         }
 
+        /// Power-ups hidden under a standing wall are covered by the cached wall, so they are skipped
         for(ConcurrentBombPowerUp powerUp : map.getConcurrentBombPowerUps()){
-            if(powerUp!= null){
-                draw(spriteBatch, powerUp);
+            if(powerUp!= null && !isUnderWall(occupancy, powerUp)){
+                drawIfVisible(spriteBatch, powerUp);
             }
         }
 
         for(BombBlastPowerUp powerUp : map.getBombBlastPowerUp()){
-            if(powerUp!= null){
-                draw(spriteBatch, powerUp);
+            if(powerUp!= null && !isUnderWall(occupancy, powerUp)){
+                drawIfVisible(spriteBatch, powerUp);
             }
         }
 
         if(!map.getBombs().isEmpty()) {
             for(Bomb bomb : map.getBombs()){
                 if(bomb!= null){
-                    draw(spriteBatch, bomb);
+                    drawIfVisible(spriteBatch, bomb);
                 }
             }
         }
 
-        for(IndestructibleWall indestructibleWall : map.getIndestructibleWalls()){
-            if(indestructibleWall != null){
-                draw(spriteBatch, indestructibleWall);
-            }
-        }
-
+        /// Only walls that are breaking apart are drawn here, the standing ones are in the static layer
         if(!map.getDestructibleWalls().isEmpty()) {
             for (DestructibleWall destructibleWall : map.getDestructibleWalls()) {
-                if (destructibleWall != null) {
-                    draw(spriteBatch, destructibleWall);
+                if (destructibleWall != null && destructibleWall.isDestroyed()) {
+                    drawIfVisible(spriteBatch, destructibleWall);
                 }
             }
         }
 
         for(SpeedPowerUp power: map.getSpeedIncreasePowerUps()){
             if(power != null){
-                draw(spriteBatch, power);
+                drawIfVisible(spriteBatch, power);
             }
         }
 
-        draw(spriteBatch, map.getExit());
+        drawIfVisible(spriteBatch, map.getExit());
 
-        if(Gdx.input.isKeyJustPressed(Input.Keys.X) && !map.getPlayer().isDead() && Bomb.getActiveBombs() < Bomb.getMaxConcurrentBombs()){
-            float bombX = Math.round(map.getPlayer().getX());
-            float bombY = Math.round(map.getPlayer().getY());
-            map.plantBomb(bombX,bombY);
+        if(Gdx.input.isKeyJustPressed(Input.Keys.X)){
+            map.requestBomb();
         }
 
         for(Enemy enemy : map.getEnemies()){
             if(enemy != null){
-                draw(spriteBatch, enemy);
+                drawIfVisible(spriteBatch, enemy);
             }
         }
 
         if(map.getPlayer().isDeathAnimationFinished()){
             game.goToLostScreen();
         } else {
-            draw(spriteBatch, map.getPlayer());
+            drawIfVisible(spriteBatch, map.getPlayer());
         }
 
         // Finish drawing, i.e. send the drawn items to the graphics card
@@ -233,17 +324,39 @@ private void renderMap() {
 
 
     /**
-     * Draws this object on the screen.
+     * Returns whether the object lies on a tile whose destructible wall is still standing.
+     */
+    private static boolean isUnderWall(OccupancyGrid occupancy, Drawable drawable) {
+        return occupancy.has(Math.round(drawable.getX()), Math.round(drawable.getY()), OccupancyGrid.DESTRUCTIBLE_WALL);
+    }
+
+    /**
+     * Draws this object on the screen, unless it lies outside the tiles the camera can see.
+     * Objects that are culled do not even have their appearance looked up.
+     * This should only be called between spriteBatch.begin() and spriteBatch.end().
+     */
+    private void drawIfVisible(SpriteBatch spriteBatch, Drawable drawable) {
+        float x = drawable.getRenderX(alpha);
+        float y = drawable.getRenderY(alpha);
+        if (x >= visibleMinX && x <= visibleMaxX && y >= visibleMinY && y <= visibleMaxY) {
+            draw(spriteBatch, drawable.getCurrentAppearance(), x, y);
+        }
+    }
+
+    /**
+     * Draws a texture on the screen at the given tile position.
      * The texture will be scaled by the game scale and the tile size.
      * This should only be called between spriteBatch.begin() and spriteBatch.end(), e.g. in the renderMap() method.
      * @param spriteBatch The SpriteBatch to draw with.
+     * @param texture The texture to draw, or null to draw nothing.
+     * @param tileX The X position in tiles, see {@link Drawable#getRenderX(float)}.
+     * @param tileY The Y position in tiles.
      */
-    private static void draw(SpriteBatch spriteBatch, Drawable drawable) {
-        TextureRegion texture = drawable.getCurrentAppearance();
+    private static void draw(SpriteBatch spriteBatch, TextureRegion texture, float tileX, float tileY) {
         // Drawable coordinates are in tiles, so we need to scale them to pixels
         if (texture !=null) {
-            float x = drawable.getX() * TILE_SIZE_PX * SCALE;
-            float y = drawable.getY() * TILE_SIZE_PX * SCALE;
+            float x = tileX * TILE_SIZE_PX * SCALE;
+            float y = tileY * TILE_SIZE_PX * SCALE;
 
             // Calculate width and height of the texture in pixels
             float width = texture.getRegionWidth() * SCALE;
@@ -268,26 +381,37 @@ public void resize(int width, int height) {
         hud.resize(width, height);
     }
 
-    // Unused methods from the Screen interface
     @Override
-    public void pause() {
+    public void show() {
+        if (simulation != null) {
+            simulation.start();
+        }
     }
 
+    /// The map must not be ticked once another screen has taken over, e.g. the pause screen
     @Override
-    public void resume() {
+    public void hide() {
+        if (simulation != null) {
+            simulation.stop();
+        }
+        updateFootsteps(null);
     }
 
+    // Unused methods from the Screen interface
     @Override
-    public void show() {
-
+    public void pause() {
     }
 
     @Override
-    public void hide() {
+    public void resume() {
     }
 
     @Override
     public void dispose() {
+        if (simulation != null) {
+            simulation.stop();
+        }
+        staticLayer.dispose();
     }
 
     public static boolean isGameLost() {
@@ -3,19 +3,78 @@
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Align;
 import io.github.phucfix.bombermangame.BombermanGame;
 import io.github.phucfix.bombermangame.audio.MusicTrack;
+import io.github.phucfix.bombermangame.audio.SoundEffect;
 import io.github.phucfix.bombermangame.map.Bomb;
+import io.github.phucfix.bombermangame.map.GameMap;
+import io.github.phucfix.bombermangame.map.RenderSnapshot;
 
 
 /**
  * A Heads-Up Display (HUD) that displays information on the screen.
  * It uses a separate camera so that it is always fixed on the screen.
+ * Every line of text keeps its own layout, which is only redone when the value shown changes,
+ * so drawing the HUD allocates nothing from one frame to the next.
  */
 public class Hud {
 
+    /**
+     * A line of HUD text: a fixed label followed by a number.
+     * The text is built in a reused StringBuilder and laid out again only when the number or the color changes.
+     */
+    private static final class Line {
+        private final String label;
+        private final StringBuilder text = new StringBuilder();
+        private final GlyphLayout layout = new GlyphLayout();
+        private final Color color = new Color();
+        private double value;
+        private boolean laidOut = false;
+
+        Line(String label) {
+            this.label = label;
+        }
+
+        void draw(BitmapFont font, SpriteBatch spriteBatch, int value, Color color, float x, float y) {
+            if (update(value, color)) {
+                text.setLength(0);
+                text.append(label).append(value);
+            }
+            draw(font, spriteBatch, x, y);
+        }
+
+        void draw(BitmapFont font, SpriteBatch spriteBatch, float value, Color color, float x, float y) {
+            if (update(value, color)) {
+                text.setLength(0);
+                text.append(label).append(value);
+            }
+            draw(font, spriteBatch, x, y);
+        }
+
+        /// Remembers the value and the color; returns whether either changed, in which case the text must be built again
+        private boolean update(double value, Color color) {
+            if (laidOut && value == this.value && color.equals(this.color)) {
+                return false;
+            }
+            this.value = value;
+            this.color.set(color);
+            laidOut = false;
+            return true;
+        }
+
+        private void draw(BitmapFont font, SpriteBatch spriteBatch, float x, float y) {
+            if (!laidOut) {
+                layout.setText(font, text, color, 0, Align.left, false);
+                laidOut = true;
+            }
+            font.draw(spriteBatch, layout, x, y);
+        }
+    }
+
     /** The SpriteBatch used to draw the HUD. This is the same as the one used in the GameScreen. */
     private final SpriteBatch spriteBatch;
     /** The font used to draw text on the screen. */
@@ -32,6 +91,13 @@ public class Hud {
     private float elapsedTime;
     private static final int TOTAL_TIME = 200; // Total time in seconds
 
+    private final GlyphLayout pauseHint = new GlyphLayout();
+    private final Line bombRadiusLine = new Line("Bomb Blast Radius: ");
+    private final Line maxBombsLine = new Line("Max Concurrent Bombs: ");
+    private final Line remainingEnemiesLine = new Line("Remaining Enemies: ");
+    private final Line speedLine = new Line("Current Speed: ");
+    private final Line remainingTimeLine = new Line("Remaining Time : ");
+
     
     public Hud(SpriteBatch spriteBatch, BitmapFont font, BombermanGame game) {
         this.spriteBatch = spriteBatch;
@@ -41,6 +107,7 @@ public Hud(SpriteBatch spriteBatch, BitmapFont font, BombermanGame game) {
         this.enemyClearSoundPlayed = false;
         this.elapsedTime =0;
         timerPaused = false;
+        pauseHint.setText(font, "Press Esc to Pause!", Color.WHITE, 0, Align.left, false);
     }
     
     /**
@@ -48,6 +115,18 @@ public Hud(SpriteBatch spriteBatch, BitmapFont font, BombermanGame game) {
      * This uses a different OrthographicCamera so that the HUD is always fixed on the screen.
      */
     public void render(float frameTime) {
+        GameMap map = game.getMap();
+        render(frameTime, Bomb.getCurrentBombRadius(), Bomb.getMaxConcurrentBombs(), map.getRemainingEnemies(), map.getPlayer().getPlayerSpeed());
+    }
+
+    /**
+     * Renders the HUD with the values of a snapshot, for when the map is simulated on another thread.
+     */
+    public void render(float frameTime, RenderSnapshot snapshot) {
+        render(frameTime, snapshot.getBombRadius(), snapshot.getMaxConcurrentBombs(), snapshot.getRemainingEnemies(), snapshot.getPlayerSpeed());
+    }
+
+    private void render(float frameTime, int bombRadius, int maxConcurrentBombs, int remainingEnemies, float playerSpeed) {
         // Render from the camera's perspective
         if (!timerPaused) {
             elapsedTime += frameTime;
@@ -58,39 +137,37 @@ public void render(float frameTime) {
         // Start drawing
         spriteBatch.begin();
         // Draw the HUD elements
-        font.setColor(Color.WHITE);
-        font.draw(spriteBatch, "Press Esc to Pause!", 10, 30);
-        font.setColor(Color.GOLD);
-        font.draw(spriteBatch, "Bomb Blast Radius: "+ Bomb.getCurrentBombRadius(), 10, Gdx.graphics.getHeight() - 10);
+        font.draw(spriteBatch, pauseHint, 10, 30);
+        bombRadiusLine.draw(font, spriteBatch, bombRadius, Color.GOLD, 10, Gdx.graphics.getHeight() - 10);
 
-        font.draw(spriteBatch, "Max Concurrent Bombs: "+ Bomb.getMaxConcurrentBombs(),10, Gdx.graphics.getHeight() - 45);
+        maxBombsLine.draw(font, spriteBatch, maxConcurrentBombs, Color.GOLD, 10, Gdx.graphics.getHeight() - 45);
 
-        font.draw(spriteBatch, "Remaining Enemies: "+ game.getMap().getRemainingEnemies(),10, Gdx.graphics.getHeight() - 80);
+        remainingEnemiesLine.draw(font, spriteBatch, remainingEnemies, Color.GOLD, 10, Gdx.graphics.getHeight() - 80);
 
-        font.draw(spriteBatch, "Current Speed: "+ game.getMap().getPlayer().getPlayerSpeed(),10, Gdx.graphics.getHeight() - 113);
+        speedLine.draw(font, spriteBatch, playerSpeed, Color.GOLD, 10, Gdx.graphics.getHeight() - 113);
 
-        if(game.getMap().getRemainingEnemies()==0 && !isEnemyClearSoundPlayed()){
-            MusicTrack.ENEMIES_CLEAR.play();
+        if(remainingEnemies==0 && !isEnemyClearSoundPlayed()){
+            SoundEffect.ENEMIES_CLEAR.trigger();
             MusicTrack.LEVEL_THEME.stop();
             MusicTrack.LEVEL_THEME2.play();
             enemyClearSoundPlayed = true;
 
         }
 
-        font.setColor(Color.GREEN);
+        Color timeColor = Color.GREEN;
         if(remainingTime == 70){
             MusicTrack.LEVEL_THEME.stop();
             MusicTrack.LEVEL_THEME.play();
         }
 
         if(remainingTime < 70 && remainingTime >20){
-            font.setColor(Color.GOLD);
+            timeColor = Color.GOLD;
         } else if(remainingTime <= 20 && remainingTime > 0){
-            font.setColor(Color.RED);
+            timeColor = Color.RED;
         } else if (remainingTime == 0) {
             game.goToLostScreen();
         }
-        font.draw(spriteBatch, "Remaining Time : " + remainingTime, Gdx.graphics.getWidth()/2f - 170, Gdx.graphics.getHeight() - 10);
+        remainingTimeLine.draw(font, spriteBatch, remainingTime, timeColor, Gdx.graphics.getWidth()/2f - 170, Gdx.graphics.getHeight() - 10);
 
         if (remainingTime <= 0) {
             game.goToLostScreen();
@@ -0,0 +1,133 @@
+package io.github.phucfix.bombermangame.screen;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.ScreenUtils;
+import io.github.phucfix.bombermangame.BombermanGame;
+
+/**
+ * The LoadingScreen shows a progress bar while the game's {@link AssetManager} loads, and moves on once the assets it waits for are there.
+ * It is drawn with a ShapeRenderer only, so it needs no asset itself, not even the skin's font.
+ */
+public class LoadingScreen implements Screen {
+
+    /** How long each frame may spend loading, in milliseconds. Leaves some of a 60 Hz frame for drawing the bar. */
+    private static final int LOAD_MILLIS_PER_FRAME = 12;
+
+    private static final float BAR_WIDTH = 400;
+    private static final float BAR_HEIGHT = 24;
+
+    private final BombermanGame game;
+    private final AssetManager assets;
+    /// Runs once the assets are loaded, usually switching to another screen
+    private final Runnable next;
+    /// The files to wait for; none means every queued asset
+    private final String[] required;
+    private final OrthographicCamera camera;
+    private final ShapeRenderer shapeRenderer;
+    private boolean done = false;
+
+    /**
+     * Constructor for LoadingScreen.
+     * @param game The main game class, which owns the asset manager.
+     * @param next What to do once the assets are loaded.
+     * @param required The files to wait for. If there are none, the screen waits for every queued asset.
+     */
+    public LoadingScreen(BombermanGame game, Runnable next, String... required) {
+        this.game = game;
+        this.assets = game.getAssets();
+        this.next = next;
+        this.required = required;
+        this.camera = new OrthographicCamera();
+        this.shapeRenderer = new ShapeRenderer();
+    }
+
+    /**
+     * Loads for a part of the frame, then draws the progress bar, or runs the next step once everything required is loaded.
+     * @param deltaTime The time in seconds since the last render.
+     */
+    @Override
+    public void render(float deltaTime) {
+        if (done) {
+            return;
+        }
+        boolean allLoaded = game.updateAssets(LOAD_MILLIS_PER_FRAME);
+        if (required.length == 0 ? allLoaded : isRequiredLoaded()) {
+            done = true;
+            next.run();
+            return;
+        }
+
+        ScreenUtils.clear(Color.BLACK);
+        float x = (camera.viewportWidth - BAR_WIDTH) / 2;
+        float y = (camera.viewportHeight - BAR_HEIGHT) / 2;
+        shapeRenderer.setProjectionMatrix(camera.combined);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(Color.DARK_GRAY);
+        shapeRenderer.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+        shapeRenderer.setColor(Color.GOLD);
+        shapeRenderer.rect(x, y, BAR_WIDTH * getProgress(), BAR_HEIGHT);
+        shapeRenderer.end();
+    }
+
+    private boolean isRequiredLoaded() {
+        for (String fileName : required) {
+            if (!assets.isLoaded(fileName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the share of the assets waited for that is loaded, between 0 and 1. */
+    private float getProgress() {
+        if (required.length == 0) {
+            return assets.getProgress();
+        }
+        int loaded = 0;
+        for (String fileName : required) {
+            if (assets.isLoaded(fileName)) {
+                loaded++;
+            }
+        }
+        return (float) loaded / required.length;
+    }
+
+    /**
+     * Centers the bar when the screen is resized.
+     * @param width The new width of the screen.
+     * @param height The new height of the screen.
+     */
+    @Override
+    public void resize(int width, int height) {
+        camera.setToOrtho(false, width, height);
+    }
+
+    @Override
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+
+    @Override
+    public void show() {
+        // Nothing to click while loading, so the previous screen's stage stops receiving input
+        Gdx.input.setInputProcessor(null);
+    }
+
+    // The following methods are part of the Screen interface but are not used in this screen.
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void hide() {
+    }
+}
@@ -59,12 +59,14 @@ public MenuScreen(BombermanGame game) {
         goToGameButton.addListener(new ChangeListener() {
                                        @Override
                                        public void changed(ChangeEvent event, Actor actor) {
-                                           game.resetHud();
-                                           Bomb.setActiveBombs(0);
-                                           Bomb.setMaxConcurrentBombs(1);
-                                           Bomb.setCurrentBombRadius(1);
-                                           MusicTrack.LEVEL_THEME.play();
-                                           game.loadDefaultMap();
+                                           game.afterLoading(() -> {
+                                               game.resetHud();
+                                               Bomb.setActiveBombs(0);
+                                               Bomb.setMaxConcurrentBombs(1);
+                                               Bomb.setCurrentBombRadius(1);
+                                               MusicTrack.LEVEL_THEME.play();
+                                               game.loadDefaultMap();
+                                           });
                                        }
                                    });
 
@@ -72,13 +74,14 @@ public void changed(ChangeEvent event, Actor actor) {
         table.add(loadAChallenge).width(300).row();
         loadAChallenge.addListener(new ChangeListener() {
                                        public void changed(ChangeEvent changeEvent, Actor actor) {
-                                           game.resetHud();
-                                           Bomb.setActiveBombs(0);
-                                           Bomb.setMaxConcurrentBombs(1);
-                                           Bomb.setCurrentBombRadius(1);
-                                           MusicTrack.LEVEL_THEME.play();
-                                           game.loadChallenge();
-
+                                           game.afterLoading(() -> {
+                                               game.resetHud();
+                                               Bomb.setActiveBombs(0);
+                                               Bomb.setMaxConcurrentBombs(1);
+                                               Bomb.setCurrentBombRadius(1);
+                                               MusicTrack.LEVEL_THEME.play();
+                                               game.loadChallenge();
+                                           });
                                        }
                                    });
 
@@ -92,8 +95,14 @@ public void changed(ChangeEvent changeEvent, Actor actor) {
             @Override
             public void changed(ChangeEvent changeEvent, Actor actor) {
                 game.resetHud();
-                ///This method will open the filechooser window
-                game.loadFileChooser();
+                ///This method will open the filechooser window, once the chosen map can be drawn
+                game.afterLoading(() -> {
+                    /// If the loading screen was shown, come back to the menu first, so cancelling the chooser does not leave the player on it
+                    if (game.getScreen() != MenuScreen.this) {
+                        game.goToMenu();
+                    }
+                    game.loadFileChooser();
+                });
             }
         });
 
@@ -138,12 +147,15 @@ public void changed(ChangeEvent event, Actor actor) {
     @Override
     public void render(float deltaTime) {
         if (Gdx.input.isKeyJustPressed(Input.Keys.ENTER)) {
-            game.resetHud();
-            Bomb.setActiveBombs(0);
-            Bomb.setMaxConcurrentBombs(1);
-            Bomb.setCurrentBombRadius(1);
-            MusicTrack.LEVEL_THEME.play();
-            game.loadDefaultMap();
+            game.afterLoading(() -> {
+                game.resetHud();
+                Bomb.setActiveBombs(0);
+                Bomb.setMaxConcurrentBombs(1);
+                Bomb.setCurrentBombRadius(1);
+                MusicTrack.LEVEL_THEME.play();
+                game.loadDefaultMap();
+            });
+            return;
         }
         float frameTime = Math.min(deltaTime, 0.250f); // Cap frame time to 250ms to prevent spiral of death        ScreenUtils.clear(Color.BLACK);
         ScreenUtils.clear(Color.BLACK);
@@ -16,6 +16,7 @@
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import io.github.phucfix.bombermangame.BombermanGame;
 import io.github.phucfix.bombermangame.audio.MusicTrack;
+import io.github.phucfix.bombermangame.audio.SoundEffect;
 import io.github.phucfix.bombermangame.map.Bomb;
 
 
@@ -46,7 +47,7 @@ public void changed(ChangeEvent event, Actor actor) {
                 Hud.setTimerPaused(false);
                 ///Clicking on This button does not work because we are already in the gameScreen?But pressing enter does work.
                 game.goToGame();
-                MusicTrack.GAME_PAUSE.play();
+                SoundEffect.GAME_PAUSE.trigger();
             }
         });
 
@@ -0,0 +1,150 @@
+package io.github.phucfix.bombermangame.screen;
+
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import io.github.phucfix.bombermangame.map.DestructibleWall;
+import io.github.phucfix.bombermangame.map.GameMap;
+import io.github.phucfix.bombermangame.map.GroundLayer;
+import io.github.phucfix.bombermangame.map.OccupancyGrid;
+import io.github.phucfix.bombermangame.texture.Textures;
+
+import static io.github.phucfix.bombermangame.screen.GameScreen.SCALE;
+import static io.github.phucfix.bombermangame.screen.GameScreen.TILE_SIZE_PX;
+
+/**
+ * Bakes the parts of the map that (almost) never change into a {@link SpriteCache} once, when the map is shown:
+ * the ground, the indestructible walls and the destructible walls that are still standing.
+ * The map is split into square chunks with one cache each, so drawing it costs one draw per chunk
+ * no matter how many tiles and walls there are.
+ * When a destructible wall is destroyed, only its own chunk is rebuilt.
+ */
+public class StaticLayerCache implements Disposable {
+
+    /** The width and height of a chunk in tiles. */
+    public static final int CHUNK_SIZE = 16;
+
+    private final GameMap map;
+    private final SpriteCache cache;
+    private final int chunksX;
+    private final int chunksY;
+    /** The SpriteCache id of every chunk, row by row (index = chunkY * chunksX + chunkX). */
+    private final int[] cacheIds;
+    /** Chunks whose walls changed since they were last built. */
+    private final boolean[] dirty;
+
+    /**
+     * Bakes the static layers of the given map.
+     * @param map The map to bake.
+     */
+    public StaticLayerCache(GameMap map) {
+        this.map = map;
+        GroundLayer ground = map.getGround();
+        this.chunksX = (ground.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (ground.getHeight() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.cacheIds = new int[chunksX * chunksY];
+        this.dirty = new boolean[chunksX * chunksY];
+
+        // Every tile has its ground, and at most one wall on top.
+        // No indices, so the cache is not limited to 8191 sprites.
+        int spriteCount = ground.getWidth() * ground.getHeight()
+                + map.getIndestructibleWalls().size() + map.getDestructibleWalls().size();
+        this.cache = new SpriteCache(Math.max(spriteCount, 1), false);
+
+        for (int chunkY = 0; chunkY < chunksY; chunkY++) {
+            for (int chunkX = 0; chunkX < chunksX; chunkX++) {
+                cache.beginCache();
+                addChunk(chunkX, chunkY);
+                cacheIds[chunkY * chunksX + chunkX] = cache.endCache();
+            }
+        }
+    }
+
+    /**
+     * Adds the ground and the walls of one chunk to the cache that is currently being defined.
+     */
+    private void addChunk(int chunkX, int chunkY) {
+        GroundLayer ground = map.getGround();
+        OccupancyGrid occupancy = map.getOccupancy();
+        int endX = Math.min((chunkX + 1) * CHUNK_SIZE, ground.getWidth());
+        int endY = Math.min((chunkY + 1) * CHUNK_SIZE, ground.getHeight());
+        for (int y = chunkY * CHUNK_SIZE; y < endY; y++) {
+            for (int x = chunkX * CHUNK_SIZE; x < endX; x++) {
+                add(textureOf(ground.getTile(x, y)), x, y);
+                if (occupancy.has(x, y, OccupancyGrid.INDESTRUCTIBLE_WALL)) {
+                    add(Textures.INDESTRUCTIBLEWALL, x, y);
+                } else if (occupancy.has(x, y, OccupancyGrid.DESTRUCTIBLE_WALL)) {
+                    add(Textures.DESTRUCTIBLEWALL, x, y);
+                }
+            }
+        }
+    }
+
+    /** Adds a texture at the given tile, scaled like {@link GameScreen} draws it. */
+    private void add(TextureRegion texture, int x, int y) {
+        cache.add(texture, x * TILE_SIZE_PX * SCALE, y * TILE_SIZE_PX * SCALE,
+                texture.getRegionWidth() * SCALE, texture.getRegionHeight() * SCALE);
+    }
+
+    /** Returns the texture of a ground tile. */
+    private static TextureRegion textureOf(byte tile) {
+        return Textures.FLOWERS;
+    }
+
+    /**
+     * Draws the chunks that overlap the given range of tiles.
+     * Visible chunks whose walls were destroyed since they were last drawn are rebuilt first,
+     * chunks outside the range stay out of date until they come into view.
+     * This must not be called between spriteBatch.begin() and spriteBatch.end().
+     * @param projection The camera's combined projection and view matrix.
+     * @param minX The leftmost visible tile.
+     * @param minY The lowest visible tile.
+     * @param maxX The rightmost visible tile.
+     * @param maxY The highest visible tile.
+     */
+    public void render(Matrix4 projection, int minX, int minY, int maxX, int maxY) {
+        DestructibleWall wall;
+        while ((wall = map.pollDestroyedWall()) != null) {
+            int chunkX = Math.round(wall.getX()) / CHUNK_SIZE;
+            int chunkY = Math.round(wall.getY()) / CHUNK_SIZE;
+            if (chunkX >= 0 && chunkY >= 0 && chunkX < chunksX && chunkY < chunksY) {
+                dirty[chunkY * chunksX + chunkX] = true;
+            }
+        }
+        int firstChunkX = Math.max(minX, 0) / CHUNK_SIZE;
+        int firstChunkY = Math.max(minY, 0) / CHUNK_SIZE;
+        int lastChunkX = Math.min(maxX / CHUNK_SIZE, chunksX - 1);
+        int lastChunkY = Math.min(maxY / CHUNK_SIZE, chunksY - 1);
+        if (maxX < 0 || maxY < 0 || firstChunkX > lastChunkX || firstChunkY > lastChunkY) {
+            return;
+        }
+
+        for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++) {
+            for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+                int chunk = chunkY * chunksX + chunkX;
+                if (dirty[chunk]) {
+                    // Redefining a cache is allowed as long as it gets no more sprites than before, and walls only disappear
+                    cache.beginCache(cacheIds[chunk]);
+                    addChunk(chunkX, chunkY);
+                    cache.endCache();
+                    dirty[chunk] = false;
+                }
+            }
+        }
+
+        cache.setProjectionMatrix(projection);
+        cache.begin();
+        for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++) {
+            for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+                cache.draw(cacheIds[chunkY * chunksX + chunkX]);
+            }
+        }
+        cache.end();
+    }
+
+    @Override
+    public void dispose() {
+        cache.dispose();
+    }
+}
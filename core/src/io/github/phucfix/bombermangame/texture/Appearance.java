@@ -0,0 +1,103 @@
+package io.github.phucfix.bombermangame.texture;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Names one of the ways something on the map can look, without referring to any texture.
+ * This lets the simulation describe a frame on a thread without a GL context:
+ * only {@link #at(float)}, called while rendering, touches {@link Animations} and {@link Textures}.
+ */
+public enum Appearance {
+
+    PLAYER_WALK_LEFT,
+    PLAYER_WALK_UP,
+    PLAYER_WALK_DOWN,
+    PLAYER_WALK_RIGHT,
+    PLAYER_FACING_LEFT,
+    PLAYER_FACING_RIGHT,
+    PLAYER_FACING_UP,
+    PLAYER_DEMISE,
+    ENEMY_MOVING,
+    ENEMY_DEMISE,
+    BOMB_TICKING,
+    EXPLOSION_CENTER,
+    EXPLOSION_TOP_END,
+    EXPLOSION_BOTTOM_END,
+    EXPLOSION_LEFT_END,
+    EXPLOSION_RIGHT_END,
+    EXPLOSION_VERTICAL,
+    EXPLOSION_HORIZONTAL,
+    WALL_BREAKING,
+    EXIT,
+    SPEED_POWERUP,
+    CONCURRENT_BOMB_POWERUP,
+    BOMB_BLAST_POWERUP;
+
+    /**
+     * Returns the texture for this appearance.
+     * This should only be called on the render thread, as it may load textures.
+     * @param stateTime How long the thing has looked like this, for animations.
+     * @return The texture, or null once a one-off animation (e.g. a demise) has finished.
+     */
+    public TextureRegion at(float stateTime) {
+        switch (this) {
+            case PLAYER_WALK_LEFT:
+                return Animations.CHARACTER_WALK_LEFT.getKeyFrame(stateTime, true);
+            case PLAYER_WALK_UP:
+                return Animations.CHARACTER_WALK_UP.getKeyFrame(stateTime, true);
+            case PLAYER_WALK_DOWN:
+                return Animations.CHARACTER_WALK_DOWN.getKeyFrame(stateTime, true);
+            case PLAYER_WALK_RIGHT:
+                return Animations.CHARACTER_WALK_RIGHT.getKeyFrame(stateTime, true);
+            case PLAYER_FACING_LEFT:
+                return SpriteSheet.ORIGINAL_OBJECTS.at(1, 2);
+            case PLAYER_FACING_RIGHT:
+                return SpriteSheet.ORIGINAL_OBJECTS.at(2, 2);
+            case PLAYER_FACING_UP:
+                return SpriteSheet.ORIGINAL_OBJECTS.at(2, 5);
+            case PLAYER_DEMISE:
+                return once(Animations.CHARACTER_DEMISE, stateTime);
+            case ENEMY_MOVING:
+                return Animations.ENEMY_MOVING_RIGHT.getKeyFrame(stateTime, true);
+            case ENEMY_DEMISE:
+                return once(Animations.ENEMY_DEMISE, stateTime);
+            case BOMB_TICKING:
+                return Animations.BOMB_TICKING.getKeyFrame(stateTime, true);
+            case EXPLOSION_CENTER:
+                return Animations.EXPLOSION_CENTER.getKeyFrame(stateTime, false);
+            case EXPLOSION_TOP_END:
+                return Animations.EXPLOSION_TOP_END.getKeyFrame(stateTime, false);
+            case EXPLOSION_BOTTOM_END:
+                return Animations.EXPLOSION_BOTTOM_END.getKeyFrame(stateTime, false);
+            case EXPLOSION_LEFT_END:
+                return Animations.EXPLOSION_LEFT_END.getKeyFrame(stateTime, false);
+            case EXPLOSION_RIGHT_END:
+                return Animations.EXPLOSION_RIGHT_END.getKeyFrame(stateTime, false);
+            case EXPLOSION_VERTICAL:
+                return Animations.EXPLOSION_VERTICAL.getKeyFrame(stateTime, false);
+            case EXPLOSION_HORIZONTAL:
+                return Animations.EXPLOSION_HORIZONTAL.getKeyFrame(stateTime, false);
+            case WALL_BREAKING:
+                return once(Animations.DESTROY_WALL, stateTime);
+            case EXIT:
+                return Textures.EXIT;
+            case SPEED_POWERUP:
+                return Textures.SPEEDPOWERUP;
+            case CONCURRENT_BOMB_POWERUP:
+                return Textures.CB_POWERUP;
+            case BOMB_BLAST_POWERUP:
+                return Textures.BR_POWERUP;
+            default:
+                throw new IllegalStateException("Unknown appearance " + this);
+        }
+    }
+
+    /** Plays an animation once, then shows nothing. */
+    private static TextureRegion once(Animation<TextureRegion> animation, float stateTime) {
+        if (animation.isAnimationFinished(stateTime)) {
+            return null;
+        }
+        return animation.getKeyFrame(stateTime, false);
+    }
+}
@@ -35,5 +35,25 @@ public interface Drawable {
      */
     float getY();
 
+    /**
+     * Gets the X coordinate to draw the drawable at, which for moving things lies between
+     * their position at the previous simulation tick and their current one.
+     * Things that never move can keep the default, which is just {@link #getX()}.
+     * @param alpha How far the frame is between the previous tick (0) and the current one (1).
+     * @return The X coordinate to draw at.
+     */
+    default float getRenderX(float alpha) {
+        return getX();
+    }
+
+    /**
+     * Gets the Y coordinate to draw the drawable at, see {@link #getRenderX(float)}.
+     * @param alpha How far the frame is between the previous tick (0) and the current one (1).
+     * @return The Y coordinate to draw at.
+     */
+    default float getRenderY(float alpha) {
+        return getY();
+    }
+
     void destroy();
 }
@@ -0,0 +1,108 @@
+package io.github.phucfix.bombermangame.texture;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Packs every spritesheet image into as few texture pages as possible, once per file.
+ * Several {@link SpriteSheet}s that cut the same image with a different grid share a single copy of it,
+ * and sprites from different images end up on the same page, so the SpriteBatch does not have to switch textures between them.
+ * The images are decoded in the background by the game's {@link AssetManager} (see {@link #queue(AssetManager)}) and packed by {@link #pack(AssetManager)}
+ * once they are all loaded. Without an asset manager, e.g. in the headless simulation, a file is read and packed the first time it is asked for.
+ */
+public final class SpriteAtlas {
+
+    /** The width and height of a page in pixels. Both spritesheets fit on one page. */
+    private static final int PAGE_SIZE = 1024;
+    /** Empty pixels between two packed images, so filtering never bleeds one image into the next. */
+    private static final int PADDING = 2;
+
+    private static final PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, PADDING, false);
+    /** The packed area of every file loaded so far, keyed by file name. */
+    private static final Map<String, TextureRegion> sheets = new HashMap<>();
+
+    private SpriteAtlas() {
+    }
+
+    /**
+     * Queues the image of every {@link SpriteSheet} on the asset manager, once per file.
+     * @param assets The game's asset manager.
+     */
+    public static void queue(AssetManager assets) {
+        for (SpriteSheet spriteSheet : SpriteSheet.values()) {
+            String path = "texture/" + spriteSheet.getFilename();
+            if (!assets.contains(path, Pixmap.class)) {
+                assets.load(path, Pixmap.class);
+            }
+        }
+    }
+
+    /**
+     * Packs the images the asset manager has loaded into the atlas, uploads the pages once, and unloads the images.
+     * Must be called on the render thread.
+     * @param assets The game's asset manager.
+     */
+    public static synchronized void pack(AssetManager assets) {
+        List<String> packed = new ArrayList<>();
+        for (SpriteSheet spriteSheet : SpriteSheet.values()) {
+            String filename = spriteSheet.getFilename();
+            String path = "texture/" + filename;
+            if (sheets.containsKey(filename) || packed.contains(filename) || !assets.isLoaded(path, Pixmap.class)) {
+                continue;
+            }
+            packer.pack(filename, assets.get(path, Pixmap.class));
+            assets.unload(path);
+            packed.add(filename);
+        }
+        if (packed.isEmpty()) {
+            return;
+        }
+        packer.updatePageTextures(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+        for (String filename : packed) {
+            sheets.put(filename, regionOf(filename));
+        }
+    }
+
+    /**
+     * Returns the region of the atlas holding the whole image of the given file, packing the file first if needed.
+     * @param filename the file name of the image, relative to the assets/texture folder
+     * @return the region covering the whole image
+     */
+    public static synchronized TextureRegion sheet(String filename) {
+        TextureRegion sheet = sheets.get(filename);
+        if (sheet == null) {
+            Pixmap image = new Pixmap(Gdx.files.internal("texture/" + filename));
+            packer.pack(filename, image);
+            image.dispose();
+            // Uploads the new image; pages that already have a texture keep the same Texture object, so older regions stay valid
+            packer.updatePageTextures(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+
+            sheet = regionOf(filename);
+            sheets.put(filename, sheet);
+        }
+        return sheet;
+    }
+
+    /** Returns the region of the page holding a packed file, whose page must have its texture. */
+    private static TextureRegion regionOf(String filename) {
+        Rectangle rect = packer.getRect(filename);
+        Texture page = packer.getPage(filename).getTexture();
+        return new TextureRegion(page, (int) rect.x, (int) rect.y, (int) rect.width, (int) rect.height);
+    }
+
+    /** Frees the pages. No region of the atlas may be drawn afterwards. */
+    public static synchronized void dispose() {
+        packer.dispose();
+        sheets.clear();
+    }
+}
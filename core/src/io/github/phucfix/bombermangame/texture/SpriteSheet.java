@@ -1,14 +1,15 @@
 package io.github.phucfix.bombermangame.texture;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.IntMap;
 
 /**
  * Enumerates all spritesheets used in the game and provides helper methods for grabbing texture regions from them.
  * It is assumed that every spritesheet has some standard grid size which can be used for easier coordinate specification.
  * See the assets/texture folder for the actual texture files (plus some more samples which are not enumerated here).
  * Feel free to add your own spritesheets and use them in the game!
+ * The images themselves live in the {@link SpriteAtlas}, so spritesheets that use the same file share one copy of it.
  *
  * @see Texture a whole image
  * @see TextureRegion a part of an image
@@ -27,9 +28,11 @@ public enum SpriteSheet {
     /// Size of bomb with default radius is 48x48
     BOMB_BLAST_SHORT("original-bomberman.png", 48, 48);
     
-    private final Texture spritesheet;
+    private final String filename;
     private final int width;
     private final int height;
+    /// Regions handed out so far, keyed by (row << 16 | column), so every cell is only cut once
+    private final IntMap<TextureRegion> regions = new IntMap<>();
     
     /**
      * Constructor for each variant of this enum.
@@ -39,7 +42,8 @@ public enum SpriteSheet {
      * @param height the height of a single grid cell
      */
     SpriteSheet(String filename, int width, int height) {
-        this.spritesheet = new Texture(Gdx.files.internal("texture/" + filename));
+        // The image is only packed into the atlas when the first region is cut from it
+        this.filename = filename;
         this.width = width;
         this.height = height;
     }
@@ -50,18 +54,30 @@ public enum SpriteSheet {
      * This method assumes the size of the texture to be a single grid cell.
      * Sprite sheet textures usually start in the top-left corner.
      * The row index start at 1 at the top and the column start at 1 on the left.
+     * The same TextureRegion is returned every time for the same cell, so it must not be modified.
      * @param row the row of the texture to fetch, starting from 1 at the TOP of the spritesheet
      * @param column the column of the texture to fetch, starting from 1 on the LEFT of the spritesheet
      * @return the texture
      */
     public TextureRegion at(int row, int column) {
-        return new TextureRegion(
-                spritesheet,
-                (column - 1) * this.width,
-                (row - 1) * this.height,
-                this.width,
-                this.height
-        );
+        int key = row << 16 | column;
+        TextureRegion region = regions.get(key);
+        if (region == null) {
+            region = new TextureRegion(
+                    SpriteAtlas.sheet(filename),
+                    (column - 1) * this.width,
+                    (row - 1) * this.height,
+                    this.width,
+                    this.height
+            );
+            regions.put(key, region);
+        }
+        return region;
+    }
+
+    /** Returns the file name of the image, relative to the assets/texture folder. */
+    String getFilename() {
+        return filename;
     }
 
 }
@@ -0,0 +1,60 @@
+package io.github.phucfix.bombermangame.headless;
+
+import io.github.phucfix.bombermangame.BombermanGame;
+import io.github.phucfix.bombermangame.map.GameMap;
+
+/**
+ * A {@link BombermanGame} without any screens, sprite batch or skin.
+ * It only exists so that a {@link GameMap} can be simulated on the headless backend:
+ * the screen transitions the map asks for are recorded instead of performed.
+ */
+public class HeadlessBombermanGame extends BombermanGame {
+
+    /** Set once the player reaches the exit with every enemy defeated. */
+    private boolean levelCompleted;
+    /** Set once the game would have switched to the lost screen. */
+    private boolean gameLost;
+
+    public HeadlessBombermanGame() {
+        // There is no file chooser without a desktop
+        super(null);
+    }
+
+    /** Nothing to create, the headless game never renders. */
+    @Override
+    public void create() {
+    }
+
+    /** Called by the map when a multi-level run moves on to the next map. */
+    @Override
+    public void loadDefaultMap() {
+        levelCompleted = true;
+    }
+
+    @Override
+    public void goToVictoryScreen() {
+        levelCompleted = true;
+    }
+
+    @Override
+    public void goToLostScreen() {
+        gameLost = true;
+    }
+
+    /** There is no HUD to reset. */
+    @Override
+    public void resetHud() {
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    public boolean isLevelCompleted() {
+        return levelCompleted;
+    }
+
+    public boolean isGameLost() {
+        return gameLost;
+    }
+}
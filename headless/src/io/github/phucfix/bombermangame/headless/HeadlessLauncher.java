@@ -0,0 +1,30 @@
+package io.github.phucfix.bombermangame.headless;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Entry point for running the game simulation without a window.
+ * Usage: HeadlessLauncher [map file] [ticks]
+ * The map file is resolved like the game's own maps (e.g. "maps/map-1.properties", or a map compiled by BinaryMap),
+ * and the launcher prints how many ticks per second the simulation managed.
+ */
+public class HeadlessLauncher {
+
+    public static void main(String[] args) {
+        String mapFile = args.length > 0 ? args[0] : "maps/map-1.properties";
+        long ticks = args.length > 1 ? Long.parseLong(args[1]) : 10_000;
+
+        HeadlessSimulation.initBackend();
+        HeadlessSimulation simulation = HeadlessSimulation.load(Gdx.files.internal(mapFile));
+
+        long start = System.nanoTime();
+        long ran = simulation.run(ticks);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Simulated %d ticks of %s in %.3f s (%.0f ticks/s)%n", ran, mapFile, seconds, ran / seconds);
+        if (simulation.isOver()) {
+            System.out.println("The level ended after " + ran + " ticks");
+        }
+        HeadlessSimulation.shutdownBackend();
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.phucfix.bombermangame.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.files.FileHandle;
+import io.github.phucfix.bombermangame.map.BinaryMap;
+import io.github.phucfix.bombermangame.map.Bomb;
+import io.github.phucfix.bombermangame.map.GameMap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Runs a {@link GameMap} without graphics or audio, e.g. on a server, for load tests or bots.
+ * The headless backend provides stubbed audio, input and files, and nothing here ever loads a texture.
+ * Ticks are driven by the caller, on the caller's thread, as fast as it likes.
+ */
+public class HeadlessSimulation {
+
+    /** The fixed time advanced by one simulation tick, the same as in the game. */
+    public static final float TICK_TIME = GameMap.TICK_TIME;
+
+    /** The headless application, created once per JVM. It only provides the Gdx.* services. */
+    private static HeadlessApplication application;
+
+    private final HeadlessBombermanGame game;
+    private final GameMap map;
+    private long ticks;
+
+    /**
+     * Create a simulation of the given map.
+     * @param mapContent The content of a map file, in the same format as the .properties maps.
+     */
+    public HeadlessSimulation(String mapContent) {
+        this.game = newGame();
+        game.parseMapLines(mapContent.split("\n"));
+        this.map = new GameMap(game, game.getCoordinatesAndObjects());
+    }
+
+    /**
+     * Create a simulation of the given compiled map.
+     * @param compiledMap The compiled map, see {@link BinaryMap}.
+     */
+    public HeadlessSimulation(ByteBuffer compiledMap) {
+        this.game = newGame();
+        this.map = new GameMap(game, compiledMap);
+    }
+
+    /**
+     * Create a simulation of the given map file, either a .properties map or a compiled map.
+     * @param mapFile The map file to load.
+     * @return The simulation.
+     */
+    public static HeadlessSimulation load(FileHandle mapFile) {
+        if (mapFile.name().endsWith(BinaryMap.EXTENSION)) {
+            return new HeadlessSimulation(ByteBuffer.wrap(mapFile.readBytes()));
+        }
+        return new HeadlessSimulation(mapFile.readString());
+    }
+
+    private static HeadlessBombermanGame newGame() {
+        initBackend();
+        // Every map starts with the default bomb settings, like in the menu
+        Bomb.setActiveBombs(0);
+        Bomb.setMaxConcurrentBombs(1);
+        Bomb.setCurrentBombRadius(1);
+        return new HeadlessBombermanGame();
+    }
+
+    /**
+     * Starts the headless backend if it is not running yet.
+     * This fills in Gdx.files, Gdx.audio, Gdx.input and Gdx.graphics with headless implementations.
+     */
+    public static synchronized void initBackend() {
+        if (application == null) {
+            application = new HeadlessApplication(new ApplicationAdapter() {});
+        }
+    }
+
+    /** Stops the headless backend, if it was started. */
+    public static synchronized void shutdownBackend() {
+        if (application != null) {
+            Gdx.app.exit();
+            application = null;
+        }
+    }
+
+    /** Advances the simulation by one fixed tick. */
+    public void tick() {
+        map.tick();
+        ticks++;
+    }
+
+    /**
+     * Advances the simulation by the given number of ticks, stopping early if the level is over.
+     * @param count The maximum number of ticks to run.
+     * @return The number of ticks actually run.
+     */
+    public long run(long count) {
+        long ran = 0;
+        while (ran < count && !isOver()) {
+            tick();
+            ran++;
+        }
+        return ran;
+    }
+
+    /** Returns whether the level has been completed or lost. */
+    public boolean isOver() {
+        return game.isLevelCompleted() || game.isGameLost() || map.getPlayer().isDead();
+    }
+
+    public GameMap getMap() {
+        return map;
+    }
+
+    public HeadlessBombermanGame getGame() {
+        return game;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+}
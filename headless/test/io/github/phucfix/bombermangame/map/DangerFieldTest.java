@@ -0,0 +1,140 @@
+package io.github.phucfix.bombermangame.map;
+
+import com.badlogic.gdx.Gdx;
+import io.github.phucfix.bombermangame.headless.HeadlessSimulation;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plants bombs at random on map-1 for 3000 ticks and checks the {@link DangerField} against what really happens:
+ * the tiles it predicts for the next tick are exactly the tiles the explosions hit, and it always equals the field
+ * worked out from scratch from the live bombs.
+ */
+public class DangerFieldTest {
+
+    private static final int TICKS = 3000;
+    private static final int MAX_BOMBS = 8;
+
+    @BeforeAll
+    static void startBackend() {
+        HeadlessSimulation.initBackend();
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        HeadlessSimulation.shutdownBackend();
+    }
+
+    @Test
+    void predictsEveryBlast() {
+        HeadlessSimulation simulation = HeadlessSimulation.load(Gdx.files.internal("maps/map-1.properties"));
+        GameMap map = simulation.getMap();
+        OccupancyGrid grid = map.getOccupancy();
+        DangerField danger = map.getDangerField();
+        Bomb.setMaxConcurrentBombs(MAX_BOMBS);
+        Random random = new Random(1);
+        int waves = 0;
+        try {
+            for (int step = 0; step < TICKS; step++) {
+                if (random.nextInt(20) == 0 && Bomb.getActiveBombs() < MAX_BOMBS) {
+                    Bomb.setCurrentBombRadius(1 + random.nextInt(8));
+                    int x;
+                    int y;
+                    do {
+                        x = 1 + random.nextInt(grid.getWidth() - 2);
+                        y = 1 + random.nextInt(grid.getHeight() - 2);
+                    } while (grid.has(x, y, (byte) (OccupancyGrid.INDESTRUCTIBLE_WALL | OccupancyGrid.DESTRUCTIBLE_WALL | OccupancyGrid.BOMB)));
+                    map.plantBomb(x, y);
+                }
+                assertEquals(recompute(grid, map.getBombs()), snapshot(grid, danger), "danger field at tick " + map.getTickCount());
+
+                long next = map.getTickCount() + 1;
+                Set<Integer> predicted = new HashSet<>();
+                for (int x = 0; x < grid.getWidth(); x++) {
+                    for (int y = 0; y < grid.getHeight(); y++) {
+                        if (danger.getBlastTick(x, y) == next) {
+                            predicted.add(grid.indexOf(x, y));
+                        }
+                    }
+                }
+                simulation.tick();
+                Set<Integer> hit = new HashSet<>();
+                for (ExplosionSegment segment : map.getSegments()) {
+                    int x = (int) segment.getX();
+                    int y = (int) segment.getY();
+                    if (segment.getElapsedTime() == 0 && grid.isInside(x, y)) {
+                        hit.add(grid.indexOf(x, y));
+                    }
+                }
+                if (!hit.isEmpty()) {
+                    waves++;
+                }
+                assertEquals(predicted, hit, "tiles hit at tick " + next);
+            }
+        } finally {
+            map.dispose();
+        }
+        assertTrue(waves > 0, "no bomb went off");
+    }
+
+    /** Returns the blast tick of every tile that is not safe, by tile index. */
+    private static Map<Integer, Long> snapshot(OccupancyGrid grid, DangerField danger) {
+        Map<Integer, Long> ticks = new HashMap<>();
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                if (danger.getBlastTick(x, y) != DangerField.SAFE) {
+                    ticks.put(grid.indexOf(x, y), danger.getBlastTick(x, y));
+                }
+            }
+        }
+        return ticks;
+    }
+
+    /**
+     * Works the danger out from scratch: every bomb goes off at its fuse's deadline or when the first blast that reaches it does,
+     * and every tile at the earliest blast that covers it.
+     */
+    private static Map<Integer, Long> recompute(OccupancyGrid grid, List<Bomb> bombs) {
+        Map<Bomb, Long> blastTicks = new HashMap<>();
+        for (Bomb bomb : bombs) {
+            blastTicks.put(bomb, bomb.getFuse().getDeadline());
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Bomb bomb : bombs) {
+                long tick = blastTicks.get(bomb);
+                boolean[] lowered = {false};
+                BlastPattern.walk(grid, Math.round(bomb.getX()), Math.round(bomb.getY()), bomb.getRadius(), (x, y, directionX, directionY, isEnd) -> {
+                    Bomb reached = grid.isInside(x, y) ? grid.getBombAt(x, y) : null;
+                    if (reached != null && tick < blastTicks.get(reached)) {
+                        blastTicks.put(reached, tick);
+                        lowered[0] = true;
+                    }
+                });
+                changed |= lowered[0];
+            }
+        }
+        Map<Integer, Long> ticks = new HashMap<>();
+        for (Bomb bomb : bombs) {
+            long tick = blastTicks.get(bomb);
+            BlastPattern.walk(grid, Math.round(bomb.getX()), Math.round(bomb.getY()), bomb.getRadius(), (x, y, directionX, directionY, isEnd) -> {
+                if (grid.isInside(x, y)) {
+                    ticks.merge(grid.indexOf(x, y), tick, Math::min);
+                }
+            });
+        }
+        return ticks;
+    }
+}